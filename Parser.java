@@ -1,96 +0,0 @@
-// Copyright 2015 theaigames.com (developers@theaigames.com)
-
-//    Licensed under the Apache License, Version 2.0 (the "License");
-//    you may not use this file except in compliance with the License.
-//    You may obtain a copy of the License at
-
-//        http://www.apache.org/licenses/LICENSE-2.0
-
-//    Unless required by applicable law or agreed to in writing, software
-//    distributed under the License is distributed on an "AS IS" BASIS,
-//    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
-//    See the License for the specific language governing permissions and
-//    limitations under the License.
-//  
-//    For the full copyright and license information, please view the LICENSE
-//    file that was distributed with this source code.
-
-package bot;
-
-import java.util.Scanner;
-
-/**
- * MyBot class
- * 
- * Main class that will keep reading output from the engine.
- * Will either update the bot state or get actions.
- * 
- * This code was adapted from the Java Starter Pack given for use in
- *    Connect Four.
- * 
- * @author Jim van Eeden <jim@starapple.nl>, Joost de Meij <joost@starapple.nl>
- */
-public class Parser {
-
-   private Scanner scanner;
-   private Bot bot;
-
-   public Parser() {
-      this.scanner = new Scanner(System.in);
-      this.readSettings();
-   }
-   
-   private void readSettings() {
-      while (this.scanner.hasNextLine()) {
-         String line = scanner.nextLine();
-
-         if(line.length() == 0) {
-            continue;
-         }
-
-         String[] parts = line.split(" ");
-
-         if(parts[0].equals("settings")) {
-            if (parts[1].equals("your_botid")) {
-               int id = Integer.parseInt(parts[2]);
-               this.bot = new Bot(id);
-            }
-         } else {
-            break;
-         }
-      }
-   }
-   
-   public void run() {
-      while (this.scanner.hasNextLine()) {
-         String line = scanner.nextLine();
-
-         if(line.length() == 0) {
-            continue;
-         }
-
-         String[] parts = line.split(" ");
-
-         if(parts[0].equals("update")) { /* new field data */
-            if (parts[2].equals("field")) {
-               this.bot.setField(parts[3]);
-            } else if (parts[2].equals("macroboard")) {
-               this.bot.setMacroboard(parts[3]);
-            }
-         } else if(parts[0].equals("action")) {
-            if (parts[1].equals("move")) { /* move requested */
-               String move = this.bot.pickBestMove();
-               System.out.println("place_move " + move);
-            }
-         }
-         else { 
-            System.out.println("unknown command");
-         }
-      }
-   }
-   
-   public static void main(String[] args) {
-      Parser parser = new Parser();
-      parser.run();
-   }
-}
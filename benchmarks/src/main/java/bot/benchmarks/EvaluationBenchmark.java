@@ -0,0 +1,81 @@
+package bot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bot.Bitboard;
+import bot.Board;
+import bot.Macroboard;
+import bot.Microboard;
+
+/**
+ * Measures the pieces of valuing a state:
+ *    Board.isWinningLocation(int, int, int) on every location of every
+ *       Microboard of the Macroboard
+ *    Bitboard.updateField(String), which values the state from scratch
+ *       (and reads the String the engine sends)
+ *    Bitboard.getValue(int), which is kept up to date by every move
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+   @Param({"OPENING", "MIDGAME", "ENDGAME"})
+   public Position position;
+
+   private Microboard[] microboards;
+   private Bitboard bitboard;
+
+   @Setup
+   public void setUp() {
+      Macroboard macroboard = this.position.toMacroboard();
+      this.microboards = new Microboard[Board.ROWS * Board.COLS];
+      for (int row = 0; row < Board.ROWS; row++) {
+         for (int col = 0; col < Board.COLS; col++) {
+            this.microboards[row * Board.COLS + col] = macroboard.get(row, col);
+         }
+      }
+      this.bitboard = this.position.toBitboard();
+   }
+
+   @Benchmark
+   public int isWinningLocation() {
+      int count = 0;
+      for (Microboard microboard : this.microboards) {
+         for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+               if (microboard.isWinningLocation(row, col, this.position.id)) {
+                  count++;
+               }
+            }
+         }
+      }
+      return count;
+   }
+
+   @Benchmark
+   public int bitboardUpdateField() {
+      this.bitboard.updateField(this.position.field);
+      return this.bitboard.getValue(this.position.id);
+   }
+
+   @Benchmark
+   public int bitboardValue() {
+      return this.bitboard.getValue(this.position.id);
+   }
+}
@@ -0,0 +1,76 @@
+package bot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bot.Bitboard;
+import bot.Macroboard;
+import bot.Move;
+
+/**
+ * Measures how long it takes to make and unmake every available move of a
+ *    state, with the Macroboard of objects and with the Bitboard. Making a
+ *    move on the Bitboard also keeps its value up to date.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeMoveBenchmark {
+
+   @Param({"OPENING", "MIDGAME", "ENDGAME"})
+   public Position position;
+
+   private Macroboard macroboard;
+   private Move[] macroboardMoves;
+   private Bitboard bitboard;
+   private int[] bitboardMoves;
+   private int count;
+
+   @Setup
+   public void setUp() {
+      this.macroboard = this.position.toMacroboard();
+      this.macroboardMoves = this.macroboard.getAvailableMoves(
+            this.position.id).toArray(new Move[0]);
+      this.bitboard = this.position.toBitboard();
+      this.bitboardMoves = new int[81];
+      this.count = this.bitboard.getAvailableMoves(this.bitboardMoves);
+   }
+
+   @Benchmark
+   public int macroboardMakeUnmake() {
+      int sum = 0;
+      for (Move move : this.macroboardMoves) {
+         int boards = this.macroboard.makeMove(move);
+         sum += boards;
+         this.macroboard.unmakeMove(move, boards);
+      }
+      return sum;
+   }
+
+   @Benchmark
+   public int bitboardMakeUnmake() {
+      int sum = 0;
+      for (int i = 0; i < this.count; i++) {
+         int boards = this.bitboard.makeMove(this.bitboardMoves[i],
+               this.position.id);
+         sum += this.bitboard.getValue(this.position.id);
+         this.bitboard.unmakeMove(this.bitboardMoves[i], this.position.id,
+               boards);
+      }
+      return sum;
+   }
+}
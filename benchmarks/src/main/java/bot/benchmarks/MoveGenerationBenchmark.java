@@ -0,0 +1,57 @@
+package bot.benchmarks;
+
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bot.Bitboard;
+import bot.Macroboard;
+import bot.Move;
+
+/**
+ * Measures how long it takes to find the available moves of a state, with
+ *    the Macroboard of objects and with the Bitboard.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+   @Param({"OPENING", "MIDGAME", "ENDGAME"})
+   public Position position;
+
+   private Macroboard macroboard;
+   private Bitboard bitboard;
+   private int[] moves;
+
+   @Setup
+   public void setUp() {
+      this.macroboard = this.position.toMacroboard();
+      this.bitboard = this.position.toBitboard();
+      this.moves = new int[81];
+   }
+
+   @Benchmark
+   public Stack<Move> macroboardAvailableMoves() {
+      return this.macroboard.getAvailableMoves(this.position.id);
+   }
+
+   @Benchmark
+   public int bitboardAvailableMoves() {
+      return this.bitboard.getAvailableMoves(this.moves);
+   }
+}
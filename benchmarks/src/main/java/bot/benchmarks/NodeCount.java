@@ -0,0 +1,96 @@
+package bot.benchmarks;
+
+import java.util.Locale;
+
+import bot.Bot;
+import bot.Clock;
+import bot.Move;
+import bot.Options;
+
+/**
+ * NodeCount searches every Position to a fixed depth with plain alpha-beta,
+ *    with principal variation search, and with principal variation search
+ *    and aspiration windows, and prints how many nodes each search took.
+ *    Unlike the benchmarks, the number of nodes does not depend on the
+ *    machine, so it shows what a change to the search does by itself.
+ *    e.g. java -cp benchmarks/target/benchmarks.jar bot.benchmarks.NodeCount
+ *       depth=10
+ *
+ * Every argument is an optional key=value pair: depth (default 10), or an
+ *    option of Options that every search uses.
+ *
+ * A value that is not the same as the one of plain alpha-beta is marked
+ *    with a *, since every search should find the same value.
+ */
+public class NodeCount {
+
+   //the name of every kind of search, and the options that make it
+   private static final String[] NAMES = {
+      "alpha-beta", "pvs", "pvs+aspiration"
+   };
+   private static final String[][] SETTINGS = {
+      {"pvs=false", "aspiration=0"},
+      {"pvs=true", "aspiration=0"},
+      {"pvs=true"}
+   };
+
+   public static void main(String[] args) {
+      int depth = 10;
+      Options[] options = new Options[NodeCount.NAMES.length];
+      for (int i = 0; i < options.length; i++) {
+         options[i] = new Options();
+         options[i].set("hash", "16");
+      }
+      for (String arg : args) {
+         int split = arg.indexOf('=');
+         if (split < 0) {
+            throw new IllegalArgumentException(arg);
+         }
+         String key = arg.substring(0, split);
+         String value = arg.substring(split + 1);
+         if (key.equals("depth")) {
+            depth = Integer.parseInt(value);
+         } else {
+            for (Options option : options) {
+               option.set(key, value);
+            }
+         }
+      }
+      for (int i = 0; i < options.length; i++) {
+         for (String setting : NodeCount.SETTINGS[i]) {
+            int split = setting.indexOf('=');
+            options[i].set(setting.substring(0, split),
+                  setting.substring(split + 1));
+         }
+      }
+      System.out.println("Nodes to depth " + depth);
+      String row = String.format(Locale.ROOT, "%-14s", "position");
+      for (String name : NodeCount.NAMES) {
+         row += String.format(Locale.ROOT, "%16s", name);
+      }
+      System.out.println(row);
+      long[] totals = new long[options.length];
+      for (Position position : Position.values()) {
+         row = String.format(Locale.ROOT, "%-14s", position);
+         int expected = 0;
+         for (int i = 0; i < options.length; i++) {
+            Bot bot = new Bot(position.id, new Clock(), options[i]);
+            position.setUp(bot);
+            Move move = bot.pickBestMove(position.id, depth);
+            long nodes = bot.getStats().getNodes();
+            totals[i] += nodes;
+            if (i == 0) {
+               expected = move.getValue();
+            }
+            String mark = move.getValue() == expected ? " " : "*";
+            row += String.format(Locale.ROOT, "%15d%s", nodes, mark);
+         }
+         System.out.println(row);
+      }
+      row = String.format(Locale.ROOT, "%-14s", "total");
+      for (long total : totals) {
+         row += String.format(Locale.ROOT, "%15d ", total);
+      }
+      System.out.println(row);
+   }
+}
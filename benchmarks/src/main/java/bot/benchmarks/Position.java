@@ -0,0 +1,89 @@
+package bot.benchmarks;
+
+import bot.Bitboard;
+import bot.Bot;
+import bot.Macroboard;
+
+/**
+ * A Position is a state of a game that the benchmarks are run on. They were
+ *    recorded from games of random moves, in the format the engine sends
+ *    (see Macroboard.updateField(String) and Macroboard.updateBoards(String)).
+ */
+public enum Position {
+
+   //2 moves in, one board can be played
+   START(1,
+         "0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0," +
+         "0,0,0,0,0,0,0,0,2,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0," +
+         "0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0,0",
+         "0,0,-1,0,0,0,0,0,0"),
+   //6 moves in, one board can be played
+   OPENING(1,
+         "1,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,2,0,0,0,0,0,0,0,0," +
+         "0,0,0,0,0,0,0,0,0,2,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0," +
+         "0,0,0,0,0,0,0,0,1,2,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0",
+         "0,0,0,0,-1,0,0,0,0"),
+   //16 moves in, one board can be played
+   EARLY_MIDGAME(1,
+         "0,0,0,0,0,0,0,0,0,1,0,0,0,0,0,0,0,0,0,1,0,0,0,1,0,0,0," +
+         "2,0,0,0,0,0,0,0,0,1,0,1,2,0,0,2,0,0,0,0,2,0,0,0,0,0,0," +
+         "0,0,0,0,2,0,2,2,0,0,0,0,0,0,0,0,1,0,0,0,2,0,0,0,1,0,1",
+         "0,-1,0,0,0,0,0,0,0"),
+   //30 moves in, one board can be played
+   MIDGAME(1,
+         "1,0,0,2,0,0,0,0,0,0,0,1,0,0,1,0,2,0,2,0,0,0,0,0,1,1,0," +
+         "0,0,0,0,0,0,0,0,2,2,0,2,1,0,0,0,1,0,1,0,0,0,1,2,1,0,2," +
+         "0,1,1,0,0,2,0,2,0,1,2,0,0,0,2,0,0,0,2,2,0,0,0,1,2,0,1",
+         "0,0,0,0,0,0,0,0,-1"),
+   //40 moves in, one board can be played
+   LATE_MIDGAME(1,
+         "1,1,2,2,2,0,0,0,1,0,2,1,0,0,2,0,0,0,0,1,0,1,1,0,2,1,1," +
+         "1,0,0,0,0,0,2,0,2,0,0,0,0,0,1,0,0,0,0,0,1,2,0,1,2,1,1," +
+         "0,1,2,0,2,0,2,1,2,0,1,1,2,2,2,2,0,0,0,1,0,2,0,0,0,0,2",
+         "0,0,-1,0,0,0,1,2,0"),
+   //50 moves in, 21 empty locations can still be played
+   ENDGAME(1,
+         "1,1,0,2,0,0,2,0,0,1,1,1,0,2,1,0,2,0,2,0,0,0,1,1,1,1,1," +
+         "2,0,1,0,0,2,0,2,2,2,0,2,1,0,1,2,1,0,1,0,0,1,1,2,1,0,2," +
+         "2,1,1,0,2,2,0,2,0,1,2,0,0,0,2,0,2,1,2,2,0,0,0,1,2,2,1",
+         "1,0,1,0,0,0,0,-1,2");
+
+   //the id of the player that is about to move
+   public final int id;
+   public final String field;
+   public final String macroboard;
+
+   private Position(int myId, String myField, String myMacroboard) {
+      this.id = myId;
+      this.field = myField;
+      this.macroboard = myMacroboard;
+   }
+
+   /**
+    * @return  a new Macroboard in this state
+    */
+   public Macroboard toMacroboard() {
+      Macroboard board = new Macroboard();
+      board.updateField(this.field);
+      board.updateBoards(this.macroboard);
+      return board;
+   }
+
+   /**
+    * @return  a new Bitboard in this state
+    */
+   public Bitboard toBitboard() {
+      Bitboard board = new Bitboard();
+      board.updateField(this.field);
+      board.updateBoards(this.macroboard);
+      return board;
+   }
+
+   /**
+    * @param bot  a Bot to put in this state
+    */
+   public void setUp(Bot bot) {
+      bot.setField(this.field);
+      bot.setMacroboard(this.macroboard);
+   }
+}
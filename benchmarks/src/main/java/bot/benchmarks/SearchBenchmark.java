@@ -0,0 +1,56 @@
+package bot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bot.Bot;
+import bot.Move;
+
+/**
+ * Measures a search of Bot to a fixed depth. The transposition table is
+ *    cleared before every search, so that every search does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+   @Param({"OPENING", "MIDGAME", "ENDGAME"})
+   public Position position;
+
+   @Param({"6", "8"})
+   public int depth;
+
+   private Bot bot;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      this.bot = new Bot(this.position.id);
+      this.position.setUp(this.bot);
+   }
+
+   @Setup(Level.Invocation)
+   public void clearTable() {
+      this.bot.clearTable();
+   }
+
+   @Benchmark
+   public Move pickBestMove() {
+      return this.bot.pickBestMove(this.position.id, this.depth);
+   }
+}
@@ -0,0 +1,94 @@
+package bot;
+
+import java.util.function.Consumer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A SearchEvent records the SearchStats of one search in a Java Flight
+ *    Recording, so that slow moves can be lined up with garbage collection,
+ *    compilation and the other events of the JVM.
+ *    e.g. java -XX:StartFlightRecording=filename=bot.jfr bot.Parser jfr=true
+ *
+ * jdk.jfr is not part of Java 8, so this class is compiled for Java 11 apart
+ *    from the rest of the bot (from src/jfr), and Engine only loads it by
+ *    name when the jfr option is on (see SearchEvent.Recorder). The bot still
+ *    builds for and runs on Java 8 as long as the option is off.
+ */
+@Name("bot.Search")
+@Label("Search")
+@Category("Ultimate Tic Tac Toe")
+@Description("The statistics of the search for one move")
+@StackTrace(false)
+class SearchEvent extends Event {
+
+   @Label("Engine")
+   String engine;
+
+   @Label("Search Time")
+   @Timespan(Timespan.NANOSECONDS)
+   long elapsed;
+
+   @Label("Nodes")
+   long nodes;
+
+   @Label("Depth")
+   int depth;
+
+   @Label("Branching Factor")
+   double branchingFactor;
+
+   @Label("Cutoff Rate")
+   double cutoffRate;
+
+   @Label("First Move Cutoff Rate")
+   double firstCutoffRate;
+
+   @Label("Table Hit Rate")
+   double hitRate;
+
+   @Label("Allocated")
+   @DataAmount
+   long allocated;
+
+   /**
+    * Records the statistics if the recording asks for this event.
+    *
+    * @param stats   the statistics of the search
+    */
+   static void record(SearchStats stats) {
+      SearchEvent event = new SearchEvent();
+      if (!event.isEnabled()) {
+         return;
+      }
+      event.engine = stats.getEngine();
+      event.elapsed = stats.getElapsed();
+      event.nodes = stats.getNodes();
+      event.depth = stats.getDepth();
+      event.branchingFactor = stats.getBranchingFactor();
+      event.cutoffRate = stats.getCutoffRate();
+      event.firstCutoffRate = stats.getFirstCutoffRate();
+      event.hitRate = stats.getHitRate();
+      event.allocated = stats.getAllocated();
+      event.commit();
+   }
+
+   /**
+    * The Recorder is what Engine loads by name, so that nothing else in the
+    *    bot refers to this class.
+    */
+   static class Recorder implements Consumer<SearchStats> {
+
+      @Override
+      public void accept(SearchStats stats) {
+         SearchEvent.record(stats);
+      }
+   }
+}
@@ -0,0 +1,745 @@
+package bot;
+
+import java.util.Random;
+import java.util.Stack;
+
+/**
+ * Bitboard is a compact representation of an entire game of Ultimate Tic Tac
+ *    Toe. It supports the operations that Bot needs while searching (available
+ *    moves, making and unmaking moves, and testing for winning locations)
+ *    without going through a grid of Microboard and Integer objects.
+ *
+ * Every Microboard is kept as a 9-bit mask per player. The locations within
+ *    a Microboard are numbered row by row:
+ *       0 1 2
+ *       3 4 5
+ *       6 7 8
+ *    The Microboards within the macroboard use the same numbering, so the
+ *    state of the macroboard is kept as 9-bit masks as well.
+ *    e.g. bit 4 of cells[1][2] is set if player 1 owns the center location
+ *          of the top right Microboard
+ *
+ * The ids of the Microboards work the same way as they do in Macroboard:
+ *    -1 if the board can be played, 0 if it belongs to neither player, and
+ *    1 or 2 if a player has won it.
+ *
+ * The state is also valued, the same way as Bot values it, while moves are
+ *    made and unmade. A move only changes the value of the board it was made
+ *    on (and of the macroboard, if it decides that board), which are looked
+ *    up in the tables of Lines. For more information, please refer to
+ *    getValue(int id).
+ *
+ * Every state also has a Zobrist hash, which is updated with every move.
+ *    The hash covers the owner of every location, the ids of the boards, and
+ *    the boards that can be played. The keys are generated from a fixed seed,
+ *    so a state has the same hash every time the bot runs. The hash of every
+ *    symmetry of the state (see Symmetry) is updated along with it, so the
+ *    canonical key of the state can be found without moving any locations.
+ */
+public class Bitboard {
+
+   //mask of all 9 locations in a board
+   public static final int FULL = 0x1FF;
+   //how much more the lines of the macroboard are worth
+   private static final int MACRO_WEIGHT = 100;
+   private static final long SEED = 0x5EED0F0D5L;
+   /*
+    * The keys of the hash, for every symmetry: KEYS[...][s] is the key of
+    *    whatever symmetry s moves the location (or board) to, so that one
+    *    change to the state changes all 8 hashes from one place in memory.
+    */
+   //keys of every location for each player, indexed by board * 9 + cell
+   private static final long[][][] CELL_KEYS =
+         new long[3][81][Symmetry.COUNT];
+   //keys of every board that has been drawn (index 0) or won by a player
+   private static final long[][][] STATUS_KEYS =
+         new long[3][9][Symmetry.COUNT];
+   //combined keys of every mask of boards that can be played
+   private static final long[][] ACTIVE_KEYS =
+         new long[Bitboard.FULL + 1][Symmetry.COUNT];
+
+   static {
+      Random random = new Random(Bitboard.SEED);
+      long[][] cellKeys = new long[3][81];
+      for (int id = 1; id <= 2; id++) {
+         for (int loc = 0; loc < 81; loc++) {
+            cellKeys[id][loc] = random.nextLong();
+         }
+      }
+      long[][] statusKeys = new long[3][9];
+      for (int id = 0; id <= 2; id++) {
+         for (int board = 0; board < 9; board++) {
+            statusKeys[id][board] = random.nextLong();
+         }
+      }
+      long[] boardKeys = new long[9];
+      for (int board = 0; board < 9; board++) {
+         boardKeys[board] = random.nextLong();
+      }
+      long[] activeKeys = new long[Bitboard.FULL + 1];
+      for (int mask = 1; mask <= Bitboard.FULL; mask++) {
+         int board = Integer.numberOfTrailingZeros(mask);
+         activeKeys[mask] = activeKeys[mask & (mask - 1)] ^ boardKeys[board];
+      }
+      for (int s = 0; s < Symmetry.COUNT; s++) {
+         for (int id = 0; id <= 2; id++) {
+            for (int loc = 0; loc < 81; loc++) {
+               Bitboard.CELL_KEYS[id][loc][s] =
+                     cellKeys[id][Symmetry.moveIndex(s, loc)];
+            }
+            for (int board = 0; board < 9; board++) {
+               Bitboard.STATUS_KEYS[id][board][s] =
+                     statusKeys[id][Symmetry.moveLocation(s, board)];
+            }
+         }
+         for (int mask = 0; mask <= Bitboard.FULL; mask++) {
+            Bitboard.ACTIVE_KEYS[mask][s] =
+                  activeKeys[Symmetry.moveMask(s, mask)];
+         }
+      }
+   }
+
+   /*
+    * cells[id][board] is the mask of locations in that board that belong to
+    *    the player with the given id (index 0 is unused)
+    */
+   private final int[][] cells;
+   //won[id] is the mask of boards won by the player with the given id
+   private final int[] won;
+   //mask of boards that are full but have not been won by either player
+   private int drawn;
+   //mask of boards that can be played on the next move
+   private int active;
+   //Zobrist hash of the state moved by every symmetry (index 0 moves nothing)
+   private final long[] hashes;
+
+   /*
+    * the value of the state for player 1: the values of the boards that are
+    *    not decided plus macroValue
+    */
+   private int value;
+   //the value of the macroboard for player 1
+   private int macroValue;
+
+   public Bitboard() {
+      this.cells = new int[3][Board.ROWS * Board.COLS];
+      this.won = new int[3];
+      this.drawn = 0;
+      this.active = Bitboard.FULL;
+      this.hashes = new long[Symmetry.COUNT];
+      this.toggle(Bitboard.ACTIVE_KEYS[this.active]);
+      this.value = 0;
+      this.macroValue = 0;
+   }
+
+   /**
+    * Makes this state the same as the given state.
+    * @param other
+    */
+   public void copy(Bitboard other) {
+      for (int id = 1; id <= 2; id++) {
+         System.arraycopy(other.cells[id], 0, this.cells[id], 0,
+               this.cells[id].length);
+         this.won[id] = other.won[id];
+      }
+      this.drawn = other.drawn;
+      this.active = other.active;
+      System.arraycopy(other.hashes, 0, this.hashes, 0, Symmetry.COUNT);
+      this.value = other.value;
+      this.macroValue = other.macroValue;
+   }
+
+   /**
+    * @Precondition: newField contains ids of exact number locations required;
+    *                   otherwise, throws new IllegalArgumentException
+    *
+    * Updates every location with the given inputs. The ids of the boards are
+    *    recalculated from the locations, but the boards that can be played
+    *    are only known after updateBoards(String newMacroboard) is called.
+    *
+    * @param newField   A String that details the id of every single loc within
+    *                      the field (see Macroboard.updateField(String))
+    */
+   public void updateField(String newField) {
+      this.updateField(Bitboard.parseIDs(newField));
+   }
+
+   /**
+    * @Precondition: ids has the id of exact number locations required, each
+    *                   0, 1 or 2; otherwise, throws new
+    *                   IllegalArgumentException
+    *
+    * Same as updateField(String), for ids that are already parsed.
+    *
+    * @param ids  the id of every location within the field, in the order the
+    *                engine sends them
+    */
+   public void updateField(int[] ids) {
+      int numLocs = Board.ROWS * Board.COLS;
+      if (ids.length != numLocs * numLocs) {
+         throw new IllegalArgumentException();
+      }
+      for (int board = 0; board < numLocs; board++) {
+         this.cells[1][board] = 0;
+         this.cells[2][board] = 0;
+      }
+      for (int i = 0; i < ids.length; i++) {
+         int index = Bitboard.fromField(i);
+         int id = ids[i];
+         if (id != 0 && id != 1 && id != 2) {
+            throw new IllegalArgumentException();
+         }
+         if (id != 0) {
+            this.cells[id][index / 9] |= 1 << (index % 9);
+         }
+      }
+      this.won[1] = 0;
+      this.won[2] = 0;
+      this.drawn = 0;
+      for (int board = 0; board < numLocs; board++) {
+         this.updateStatus(board);
+      }
+      this.resetHash();
+      this.resetValues();
+   }
+
+   /**
+    * If the given field is this state plus one move of the player with the
+    *    given id, makes that move, so that the hash and the value are kept
+    *    up to date instead of being calculated from nothing. Does nothing if
+    *    the field is this state.
+    *
+    * @Precondition: ids has the id of exact number locations required;
+    *                   otherwise, throws new IllegalArgumentException
+    * @param ids  the id of every location within the field, in the order the
+    *                engine sends them
+    * @param id   the id of the player that might have moved
+    * @return  false if the field is anything else (and this state has not
+    *             changed); otherwise, true
+    */
+   public boolean applyField(int[] ids, int id) {
+      if (ids.length != 81) {
+         throw new IllegalArgumentException();
+      }
+      int move = -1;
+      for (int i = 0; i < ids.length; i++) {
+         int index = Bitboard.fromField(i);
+         int current = this.getID(index / 9, index % 9);
+         if (ids[i] != current) {
+            if (move >= 0 || current != 0 || ids[i] != id) {
+               return false;
+            }
+            move = index;
+         }
+      }
+      if (move >= 0) {
+         if ((this.active & (1 << (move / 9))) == 0) {
+            return false;//not a move we could have seen coming
+         }
+         this.makeMove(move, id);
+      }
+      return true;
+   }
+
+   /**
+    * @param i the place of a location in the field, in the order the engine
+    *             sends them
+    * @return  the index of the location (see toIndex(Move))
+    */
+   private static int fromField(int i) {
+      int numLocs = Board.ROWS * Board.COLS;
+      int microRow = i / numLocs;
+      int microCol = i % numLocs;
+      int board = (microRow / Board.ROWS) * Board.COLS +
+                  microCol / Board.COLS;
+      int cell = (microRow % Board.ROWS) * Board.COLS +
+                 microCol % Board.COLS;
+      return board * 9 + cell;
+   }
+
+   /**
+    * Makes this state the same as the given state moved by the given
+    *    symmetry. Boards are moved within the macroboard the same way that
+    *    locations are moved within a board. Afterwards, getHash() of this
+    *    state is getHash(symmetry) of the given state.
+    *
+    * @param other
+    * @param symmetry   a symmetry (see Symmetry)
+    */
+   public void transform(Bitboard other, int symmetry) {
+      for (int id = 1; id <= 2; id++) {
+         for (int board = 0; board < Lines.SIZE; board++) {
+            this.cells[id][Symmetry.moveLocation(symmetry, board)] =
+                  Symmetry.moveMask(symmetry, other.cells[id][board]);
+         }
+         this.won[id] = Symmetry.moveMask(symmetry, other.won[id]);
+      }
+      this.drawn = Symmetry.moveMask(symmetry, other.drawn);
+      this.active = Symmetry.moveMask(symmetry, other.active);
+      //every line is moved to another line, so the value does not change
+      this.value = other.value;
+      this.macroValue = other.macroValue;
+      this.resetHash();
+   }
+
+   /**
+    * @Precondition: newMacroboard contains ids of exact number of boards;
+    *                   otherwise, throws new IllegalArgumentException
+    *
+    * Only the boards with an id of -1 are used from the given String. The
+    *    rest of the ids are already known from the locations.
+    *
+    * @param newMacroboard
+    *                   A String that details the id of every board in field
+    *                   (see Macroboard.updateBoards(String))
+    */
+   public void updateBoards(String newMacroboard) {
+      this.updateBoards(Bitboard.parseIDs(newMacroboard));
+   }
+
+   /**
+    * @Precondition: ids has the id of exact number of boards;
+    *                   otherwise, throws new IllegalArgumentException
+    *
+    * Same as updateBoards(String), for ids that are already parsed.
+    *
+    * @param ids  the id of every board, in the order the engine sends them
+    */
+   public void updateBoards(int[] ids) {
+      if (ids.length != Board.ROWS * Board.COLS) {
+         throw new IllegalArgumentException();
+      }
+      this.toggle(Bitboard.ACTIVE_KEYS[this.active]);
+      this.active = 0;
+      for (int i = 0; i < ids.length; i++) {
+         if (ids[i] == -1) {
+            this.active |= 1 << i;
+         }
+      }
+      this.toggle(Bitboard.ACTIVE_KEYS[this.active]);
+   }
+
+   /**
+    * @param ids  ids separated by commas, as the engine sends them
+    * @return  the ids
+    */
+   private static int[] parseIDs(String ids) {
+      String[] parts = ids.split(",");
+      int[] result = new int[parts.length];
+      for (int i = 0; i < parts.length; i++) {
+         result[i] = Integer.parseInt(parts[i]);
+      }
+      return result;
+   }
+
+   /**
+    * @param id
+    * @return  the available moves in the board for a player with the given id
+    */
+   public Stack<Move> getAvailableMoves(int id) {
+      int[] indices = new int[81];
+      int count = this.getAvailableMoves(indices);
+      Stack<Move> moves = new Stack<Move>();
+      for (int i = 0; i < count; i++) {
+         moves.push(Bitboard.toMove(indices[i], id));
+      }
+      return moves;
+   }
+
+   /**
+    * Writes the index of every available move into the given array, so that
+    *    no objects are made. For more information on the index of a move,
+    *    please refer to toIndex(Move).
+    *
+    * @Precondition: moves can hold 81 moves
+    * @param moves   the array to write the moves into
+    * @return  the number of available moves
+    */
+   public int getAvailableMoves(int[] moves) {
+      int count = 0;
+      for (int boards = this.active; boards != 0; boards &= boards - 1) {
+         int board = Integer.numberOfTrailingZeros(boards);
+         for (int empty = this.getEmpty(board); empty != 0;
+               empty &= empty - 1) {
+            moves[count] = board * 9 + Integer.numberOfTrailingZeros(empty);
+            count++;
+         }
+      }
+      return count;
+   }
+
+   /**
+    * @Precondition:    the board we are trying to make a move on can be
+    *                   played and the location is empty; otherwise,
+    *                   throws an IllegalStateException
+    * @Postcondition:   changes the id of the given location to the given id
+    *                   changes the ids of all affected boards
+    * @param move a Move that we are attempting to make on this board
+    * @return  the mask of boards that could be played before the move
+    *          This is all unmakeMove(Move, int) needs to restore the ids of
+    *             the boards, since the board that was played on could not
+    *             have been won or drawn before the move.
+    */
+   public int makeMove(Move move) {
+      return this.makeMove(Bitboard.toIndex(move), move.id);
+   }
+
+   /**
+    * Unmakes a move: to be used in conjunction with makeMove(move)
+    *    The int that makeMove(move) returns should be the int passed in here.
+    * @param move
+    * @param boards
+    */
+   public void unmakeMove(Move move, int boards) {
+      this.unmakeMove(Bitboard.toIndex(move), move.id, boards);
+   }
+
+   /**
+    * The same as makeMove(Move), for the move with the given index.
+    * @param index   the index of the move (see toIndex(Move))
+    * @param id      the id of the player that makes the move
+    * @return  the mask of boards that could be played before the move
+    */
+   public int makeMove(int index, int id) {
+      int board = index / 9;
+      int cell = index % 9;
+      if ((this.active & (1 << board)) == 0 ||
+          (this.getEmpty(board) & (1 << cell)) == 0) {
+         throw new IllegalStateException();
+      }
+      int boards = this.active;
+      this.value -= this.getBoardValue(board);
+      this.cells[id][board] |= 1 << cell;
+      this.toggle(Bitboard.CELL_KEYS[id][index]);
+      this.updateStatus(board);
+      if (this.getStatus(board) < 0) {
+         this.value += this.getBoardValue(board);
+      } else {
+         this.updateMacroValue();
+      }
+      int decided = this.getDecided();
+      if ((decided & (1 << cell)) == 0) {
+         this.active = 1 << cell;
+      } else {
+         this.active = Bitboard.FULL & ~decided;
+      }
+      this.toggle(Bitboard.ACTIVE_KEYS[boards]);
+      this.toggle(Bitboard.ACTIVE_KEYS[this.active]);
+      return boards;
+   }
+
+   /**
+    * The same as unmakeMove(Move, int), for the move with the given index.
+    * @param index   the index of the move (see toIndex(Move))
+    * @param id      the id of the player that made the move
+    * @param boards  the int that makeMove(index, id) returned
+    */
+   public void unmakeMove(int index, int id, int boards) {
+      int board = index / 9;
+      int cell = index % 9;
+      int status = this.getStatus(board);
+      if (status >= 0) {
+         this.toggle(Bitboard.STATUS_KEYS[status][board]);
+         this.won[1] &= ~(1 << board);
+         this.won[2] &= ~(1 << board);
+         this.drawn &= ~(1 << board);
+         this.updateMacroValue();
+      } else {
+         this.value -= this.getBoardValue(board);
+      }
+      this.cells[id][board] &= ~(1 << cell);
+      this.toggle(Bitboard.CELL_KEYS[id][index]);
+      this.value += this.getBoardValue(board);
+      this.toggle(Bitboard.ACTIVE_KEYS[this.active]);
+      this.toggle(Bitboard.ACTIVE_KEYS[boards]);
+      this.active = boards;
+   }
+
+   /**
+    * @Precondition: the given location is empty
+    * @param board   the board in the macroboard
+    * @param cell    the location within the board
+    * @param id      the id of a player
+    * @return  true if the given location would complete a line for the player
+    *             with the given id; otherwise, false
+    */
+   public boolean isWinningLocation(int board, int cell, int id) {
+      return Lines.isWon(this.cells[id][board] | (1 << cell));
+   }
+
+   /**
+    * @param move
+    * @return  true if making the given move would win the game for the player
+    *             that makes it; otherwise, false
+    */
+   public boolean isWinningMove(Move move) {
+      return this.isWinningMove(Bitboard.toIndex(move), move.id);
+   }
+
+   /**
+    * @param index   the index of a move (see toIndex(Move))
+    * @param id      the id of the player that makes the move
+    * @return  true if making the given move would win the game for the player
+    *             that makes it; otherwise, false
+    */
+   public boolean isWinningMove(int index, int id) {
+      int board = index / 9;
+      return this.isWinningLocation(board, index % 9, id) &&
+             Lines.isWon(this.won[id] | (1 << board));
+   }
+
+   /**
+    * @return  the id of the player that has won the game; otherwise, 0
+    */
+   public int getWinner() {
+      if (Lines.isWon(this.won[1])) {
+         return 1;
+      } else if (Lines.isWon(this.won[2])) {
+         return 2;
+      }
+      return 0;
+   }
+
+   /**
+    * @param board   the board in the macroboard
+    * @return  the id of the board (-1, 0, 1, or 2)
+    *          For more information, please refer to Microboard
+    */
+   public int getID(int board) {
+      if ((this.won[1] & (1 << board)) != 0) {
+         return 1;
+      } else if ((this.won[2] & (1 << board)) != 0) {
+         return 2;
+      } else if ((this.active & (1 << board)) != 0) {
+         return -1;
+      }
+      return 0;
+   }
+
+   /**
+    * @param board   the board in the macroboard
+    * @param cell    the location within the board
+    * @return  the id of the player that owns the given location (0, 1, or 2)
+    */
+   public int getID(int board, int cell) {
+      if ((this.cells[1][board] & (1 << cell)) != 0) {
+         return 1;
+      } else if ((this.cells[2][board] & (1 << cell)) != 0) {
+         return 2;
+      }
+      return 0;
+   }
+
+   /**
+    * @param board   the board in the macroboard
+    * @param id      the id of a player
+    * @return  the mask of locations in the board that belong to the player
+    */
+   public int getCells(int board, int id) {
+      return this.cells[id][board];
+   }
+
+   /**
+    * @param id   the id of a player
+    * @return  the mask of boards that have been won by the player
+    */
+   public int getWon(int id) {
+      return this.won[id];
+   }
+
+   /**
+    * @param board   the board in the macroboard
+    * @return  the mask of locations in the board that belong to neither player
+    */
+   public int getEmpty(int board) {
+      return Bitboard.FULL & ~(this.cells[1][board] | this.cells[2][board]);
+   }
+
+   /**
+    * @return  the mask of boards that have either been won or are full
+    */
+   public int getDecided() {
+      return this.won[1] | this.won[2] | this.drawn;
+   }
+
+   /**
+    * @return  the number of empty locations in boards that are not decided,
+    *             which are the only locations that can still be played
+    */
+   public int getEmptyCount() {
+      int count = 0;
+      int undecided = Bitboard.FULL & ~this.getDecided();
+      for (int boards = undecided; boards != 0; boards &= boards - 1) {
+         count += Integer.bitCount(
+               this.getEmpty(Integer.numberOfTrailingZeros(boards)));
+      }
+      return count;
+   }
+
+   /**
+    * @return  the mask of boards that can be played on the next move
+    */
+   public int getActive() {
+      return this.active;
+   }
+
+   /**
+    * @param move
+    * @return  the index of the location of the given move in the field
+    *             (board * 9 + cell, between 0 and 80)
+    */
+   public static int toIndex(Move move) {
+      return (move.boardRow * Board.COLS + move.boardCol) * 9 +
+             move.row * Board.COLS + move.col;
+   }
+
+   /**
+    * @param index   the index of a location in the field (see toIndex(Move))
+    * @param id      the id of the player that makes the move
+    * @return  a Move at the given location
+    */
+   public static Move toMove(int index, int id) {
+      int board = index / 9;
+      int cell = index % 9;
+      return new Move(cell / Board.COLS, cell % Board.COLS,
+            board / Board.COLS, board % Board.COLS, id);
+   }
+
+   /**
+    * Every line that is still open for a player (none of the opposing
+    *    player's locations are in it) is worth 10^(number of the player's
+    *    locations in it). Only the boards that are not decided count, and
+    *    lines of the macroboard are worth 100 times as much as lines of a
+    *    board. A board that was drawn blocks the lines of both players.
+    *
+    * @param id   the id of a player
+    * @return  the value of the state for the player with the given id minus
+    *             the value for the opposing player
+    */
+   public int getValue(int id) {
+      return id == 1 ? this.value : -this.value;
+   }
+
+   /**
+    * @return  the Zobrist hash of the state
+    */
+   public long getHash() {
+      return this.hashes[0];
+   }
+
+   /**
+    * @param symmetry   a symmetry (see Symmetry)
+    * @return  the Zobrist hash of the state that the symmetry moves this
+    *             state to
+    */
+   public long getHash(int symmetry) {
+      return this.hashes[symmetry];
+   }
+
+   /**
+    * Adds the given keys to the hashes, or takes them out if they are in.
+    * @param keys the key of something in the state for every symmetry
+    */
+   private void toggle(long[] keys) {
+      for (int s = 0; s < Symmetry.COUNT; s++) {
+         this.hashes[s] ^= keys[s];
+      }
+   }
+
+   /**
+    * Recalculates whether the given board has been won or drawn.
+    * @Precondition: the bit of the given board is clear in won and drawn
+    * @param board
+    */
+   private void updateStatus(int board) {
+      int status = Lines.getStatus(this.cells[1][board], this.cells[2][board]);
+      if (status == 0) {
+         this.drawn |= 1 << board;
+      } else if (status > 0) {
+         this.won[status] |= 1 << board;
+      }
+      if (status >= 0) {
+         this.toggle(Bitboard.STATUS_KEYS[status][board]);
+      }
+   }
+
+   /**
+    * @param board
+    * @return  the id of the player that won the given board, 0 if the board
+    *             was drawn, or -1 if the board has not been decided
+    */
+   private int getStatus(int board) {
+      if ((this.won[1] & (1 << board)) != 0) {
+         return 1;
+      } else if ((this.won[2] & (1 << board)) != 0) {
+         return 2;
+      } else if ((this.drawn & (1 << board)) != 0) {
+         return 0;
+      }
+      return -1;
+   }
+
+   /**
+    * @param board   the board in the macroboard
+    * @return  the value of the open lines of the board for player 1 minus
+    *             the value for player 2
+    */
+   private int getBoardValue(int board) {
+      int own = this.cells[1][board];
+      int opp = this.cells[2][board];
+      return Lines.getValue(own, opp) - Lines.getValue(opp, own);
+   }
+
+   /**
+    * Values the macroboard again after a board has been decided or is no
+    *    longer decided. A board that was drawn blocks the lines of both
+    *    players.
+    */
+   private void updateMacroValue() {
+      int own = this.won[1];
+      int opp = this.won[2];
+      int macro = Bitboard.MACRO_WEIGHT *
+                  (Lines.getValue(own, opp | this.drawn) -
+                   Lines.getValue(opp, own | this.drawn));
+      this.value += macro - this.macroValue;
+      this.macroValue = macro;
+   }
+
+   /**
+    * Calculates the hash of the state from scratch.
+    */
+   private void resetHash() {
+      for (int s = 0; s < Symmetry.COUNT; s++) {
+         this.hashes[s] = 0;
+      }
+      this.toggle(Bitboard.ACTIVE_KEYS[this.active]);
+      for (int board = 0; board < Lines.SIZE; board++) {
+         int status = this.getStatus(board);
+         if (status >= 0) {
+            this.toggle(Bitboard.STATUS_KEYS[status][board]);
+         }
+         for (int id = 1; id <= 2; id++) {
+            for (int cells = this.cells[id][board]; cells != 0;
+                  cells &= cells - 1) {
+               int cell = Integer.numberOfTrailingZeros(cells);
+               this.toggle(Bitboard.CELL_KEYS[id][board * 9 + cell]);
+            }
+         }
+      }
+   }
+
+   /**
+    * Calculates the value of the state from scratch.
+    */
+   private void resetValues() {
+      int decided = this.getDecided();
+      this.value = 0;
+      for (int board = 0; board < Board.ROWS * Board.COLS; board++) {
+         if ((decided & (1 << board)) == 0) {
+            this.value += this.getBoardValue(board);
+         }
+      }
+      this.macroValue = 0;
+      this.updateMacroValue();
+   }
+}
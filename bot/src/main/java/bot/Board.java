@@ -0,0 +1,195 @@
+package bot;
+
+import java.lang.reflect.Array;
+
+/**
+ * This board can ONLY be used in games that implement connection.
+ * 
+ * For example,
+ *    Tic Tac Toe is a game that requires this type of board.
+ *    In TTT, players can pick one location that belongs to them.
+ *    The goal of TTT is to connect 3 in a row.
+ *    
+ *    Connect Four is another game that would require this type of board.
+ *    Instead of connecting 3, we would have to connect four.
+ * 
+ * This type of board does not support a Chess board because the point of
+ *    Chess is not to connect our pieces.
+ *    
+ * Each element in this board belongs to either 0 or 1 players.
+ *    There will only be 2 players in the game.
+ *    One will have an id of 1. The other will have an id of 2.
+ *    
+ * @author Ryan Pachauri
+ * @version 5/26/16
+ */
+public abstract class Board<T> {
+   
+   //2D array that keeps track of one game that requires a board
+   protected T[][] board;
+   /*
+    * Size of the board is dictated by the number of rows and columns in the
+    *    board.
+    *    We may not always be dealing with a board that is square
+    */
+   public static final int ROWS = 3;
+   public static final int COLS = 3;
+   public static final int CONNECT = 3;//how many we need to connect to win
+   
+   @SuppressWarnings("unchecked")
+   public Board(Class<?> classObject) {
+      this.board = (T[][]) Array.newInstance(classObject, Board.ROWS, Board.COLS);
+      for (int row = 0; row < Board.ROWS; row++) {
+         for (int col = 0; col < Board.COLS; col++) {
+            try {
+               if (classObject.equals(Integer.class)) {
+                  this.board[row][col] = (T) new Integer(0);
+               } else {
+                  this.board[row][col] = (T) classObject.newInstance();
+               }
+            } catch (InstantiationException | IllegalAccessException e) {
+               e.printStackTrace();
+            }
+         }
+      }
+   }
+   
+   /**
+    * @Precondition: given location is a valid location; otherwise,
+    *                   throws new IllegalStateException
+    * @param row  location in this board
+    * @param col  location in this board
+    * @return  the Object at the given location
+    */
+   public T get(int row, int col) {
+      this.checkLocation(row, col);
+      return this.board[row][col];
+   }
+   
+   /**
+    * @Precondition: given location is a valid location; otherwise,
+    *                   throws new IllegalStateException
+    * @param row
+    * @param col
+    * @param myId the id of a player
+    */
+   public abstract void update(int row, int col, int id);
+   
+   /**
+    * 
+    * @Precondition: given location is a valid location; otherwise,
+    *                   throws new IllegalStateException
+    * @param row
+    * @param col
+    * @return the id of the Object at the given location
+    */
+   public abstract int getID(int row, int col);
+
+   /**
+    * This method is used whenever a method that uses a location as a parameter
+    *    is called.
+    * Throws an IllegalArgumentException if the given location is not in the
+    *    board.
+    *
+    * @param row
+    * @param col
+    */
+   protected void checkLocation(int row, int col) {
+      if (!this.isValidLocation(row, col)) {
+         throw new IllegalStateException();
+      }
+   }
+   
+   /**
+    * This method is used whenever a method that uses an id as a parameter
+    *    is called.
+    * Throws an IllegalStateException if the given id is not 0, 1, or 2
+    * 
+    * @param id
+    */
+   protected void checkID(int id) {
+      if (id != 0 && id != 1 && id != 2) {
+         throw new IllegalArgumentException();
+      }
+   }
+   
+   /**
+    * @param row  location in board
+    * @param col  location in board
+    * @return  true if the given location exists within the instance variable
+    *             board; otherwise, false
+    */
+   public boolean isValidLocation(int row, int col) {
+      return row >= 0 && row < board.length &&
+             col >= 0 && col < board[0].length;
+   }
+   
+   /**
+    * @Precondition: given location is a valid location; otherwise,
+    *                   throws new IllegalStateException
+    * @param row
+    * @param col
+    * @return  true if the given location belongs to neither player; otherwise,
+    *          false
+    */
+   public boolean isEmptyLocation(int row, int col) {
+      this.checkLocation(row, col);
+      return this.getID(row, col) == 0;
+   }
+   
+   /**
+    * @Precondition: given location is a valid location; otherwise,
+    *                   throws new IllegalStateException
+    *                given id is 1 or 2; otherwise,
+    *                   throws new IllegalArgumentException
+    * To be in a winning line, there must be at least one line that has
+    *    Board.CONNECT locations belonging to the player with the given
+    *    id
+    *           
+    * @param row
+    * @param col
+    * @return  true if the given location is part of a winning line for the
+    *             player with the given id
+    *               
+    */
+   public boolean isWinningLocation(int row, int col, int id) {
+      this.checkLocation(row, col);
+      if (id != 1 && id != 2) {
+         throw new IllegalArgumentException();
+      }
+      return Lines.isWinningLocation(this.getMask(id), row * Board.COLS + col);
+   }
+   
+   /**
+    * The locations in the mask are numbered row by row. For more information,
+    *    please refer to Lines.
+    * 
+    * @param id   the id we are looking for
+    * @return  a mask of the locations in this board with the given id
+    */
+   public int getMask(int id) {
+      int mask = 0;
+      for (int row = 0; row < Board.ROWS; row++) {
+         for (int col = 0; col < Board.COLS; col++) {
+            if (this.getID(row, col) == id) {
+               mask |= 1 << (row * Board.COLS + col);
+            }
+         }
+      }
+      return mask;
+   }
+   
+   /**
+    * @Precondition: There are only 2 players and the ids can be either 1 or 2;
+    *                   otherwise, throws an IllegalArgumentException
+    * @param id   the id of a player in the game
+    * @return     the id of the opposing player in the game
+    */
+   public static int calculateOppID(int id) {
+      //different from checkID(int) because we can't have an id of 0
+      if (id != 1 && id != 2) {
+         throw new IllegalArgumentException();
+      }
+      return 3 - id;
+   }
+}
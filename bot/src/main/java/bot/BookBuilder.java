@@ -0,0 +1,106 @@
+package bot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BookBuilder searches every state of the first moves of a game deeply and
+ *    writes the best moves into a file for OpeningBook.
+ *    e.g. java bot.BookBuilder book.bin 3 10
+ *       searches every state of the first 3 moves to a depth of 10
+ *
+ * States that are rotations or reflections of a state that has already been
+ *    searched are skipped. For more information, please refer to OpeningBook.
+ */
+public class BookBuilder {
+
+   private final int plies;
+   private final int depth;
+   private final Bitboard board;
+   private final Bot searcher;
+   //the best move of every state that was searched, by key
+   private final Map<Long, int[]> entries;
+
+   /**
+    * @param myPlies the number of moves from the start of the game whose
+    *                   states are searched
+    * @param myDepth the depth of every search
+    */
+   public BookBuilder(int myPlies, int myDepth) {
+      this.plies = myPlies;
+      this.depth = myDepth;
+      this.board = new Bitboard();
+      this.searcher = new Bot(1);
+      this.entries = new TreeMap<Long, int[]>();//sorted the way books are
+   }
+
+   /**
+    * @param args the path of the book, the number of moves, and the depth
+    */
+   public static void main(String[] args) throws IOException {
+      if (args.length != 3) {
+         System.err.println("usage: java bot.BookBuilder <file> <plies> <depth>");
+         return;
+      }
+      BookBuilder builder = new BookBuilder(Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]));
+      builder.build(1, 0);
+      builder.write(args[0]);
+      System.err.println(builder.entries.size() + " states written to " +
+            args[0]);
+   }
+
+   /**
+    * Searches the current state and every state after it, up to the given
+    *    number of moves.
+    *
+    * @param id   the id of the player that is about to move
+    * @param ply  the number of moves made since the start of the game
+    */
+   private void build(int id, int ply) {
+      if (ply >= this.plies || this.board.getWinner() != 0) {
+         return;
+      }
+      int[] moves = new int[81];
+      int count = this.board.getAvailableMoves(moves);
+      int symmetry = Symmetry.getCanonical(this.board);
+      long key = this.board.getHash(symmetry);
+      if (count == 0 || this.entries.containsKey(key)) {
+         return;
+      }
+      this.searcher.board.copy(this.board);
+      Move best = this.searcher.pickBestMove(id, this.depth);
+      //the book keeps the move of the canonical state
+      this.entries.put(key, new int[] {
+            Symmetry.toCanonical(Bitboard.toIndex(best), symmetry),
+            best.value});
+      for (int i = 0; i < count; i++) {
+         int boards = this.board.makeMove(moves[i], id);
+         this.build(Board.calculateOppID(id), ply + 1);
+         this.board.unmakeMove(moves[i], id, boards);
+      }
+   }
+
+   /**
+    * @param path the path of the book
+    */
+   private void write(String path) throws IOException {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(path)));
+      try {
+         out.writeInt(OpeningBook.MAGIC);
+         out.writeInt(this.entries.size());
+         for (Map.Entry<Long, int[]> entry : this.entries.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeInt(entry.getValue()[0]);
+            out.writeInt(entry.getValue()[1]);
+         }
+      } finally {
+         out.close();
+      }
+   }
+}
@@ -0,0 +1,1020 @@
+package bot;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This is an artificial intelligence that plays Ultimate Tic Tac Toe.
+ *    It implements the negamax algorithm with alpha-beta pruning to determine
+ *    the best move a player would make.
+ * 
+ * Every value is from the point of view of the player that is about to move.
+ *    A win is valued at WIN minus the number of moves it takes, so that we
+ *    prefer faster wins and slower losses.
+ * 
+ * With the threads option, the search runs on more than one core (Lazy SMP).
+ *    Every other thread runs a helper Bot with its own copy of the board,
+ *    and all of them share the transposition table, so each one finds the
+ *    results of the others there. Half of the helpers start one move deeper,
+ *    so that the threads do not all search the same thing. The best move is
+ *    taken from the thread that finished the deepest search.
+ * 
+ * With the book option, the first moves of a game are taken from an
+ *    OpeningBook instead of being searched.
+ * 
+ * Once few enough empty locations are left (the solver option), an
+ *    EndgameSolver first tries to solve the game within half of our time.
+ *    A win or a draw that it proves is played right away; otherwise, we
+ *    search as usual with the rest of the time.
+ * 
+ * With the ponder option, another helper keeps searching the state after our
+ *    move while the opposing player is thinking. It shares the transposition
+ *    table as well, so once we know the opposing player's move, the results
+ *    for it are already there and our next search gets deeper faster.
+ * 
+ * Every move after the first one of a state is searched with a null window
+ *    first (principal variation search), which only proves that the move
+ *    is not better than the first one; the move is only searched again with
+ *    the full window if it turns out to be better. Every iteration of
+ *    iterative deepening starts with a window around the value of the last
+ *    one (an aspiration window), and searches again with a full window if
+ *    the value falls outside of it. Both can be turned off (see Options).
+ * 
+ * The search is selective, since the tree is very uneven: a move that sends
+ *    the opposing player to a decided board lets them play anywhere, while
+ *    a move into an almost full board leaves them a single reply.
+ *    - Quiet moves late in the order are searched less deeply first, and
+ *      only searched again to the full depth if they turn out to be good
+ *      (late move reductions).
+ *    - A forced move, or a move that wins a board and so threatens to win
+ *      the game, is searched one move deeper (extensions).
+ *    - Near the leaves, when we are far behind, quiet moves that let the
+ *      opposing player choose any board are skipped.
+ *    How much of each is done is set in Options, so it can be tuned with
+ *    SelfPlay.
+ * 
+ * @author RyanPachauri
+ * @version 5/30/16
+ */
+public class Bot extends Engine {
+   
+   private static final int WIN = 1000000;
+   private static final int INFINITY = 10 * Bot.WIN;
+   //the most moves a game can last
+   private static final int MAX_DEPTH = 81;
+   //how many nodes we visit between checks of the clock
+   private static final int CHECK_INTERVAL = 1024;
+   //10^(number of a player's locations in a line)
+   private static final int[] POWERS = {1, 10, 100, 1000};
+   //how much the killer moves and the countermove are moved up the order
+   private static final int KILLER_BONUS = Bot.WIN / 4;
+   private static final int COUNTER_BONUS = Bot.WIN / 8;
+   //the history of a move is halved once any history gets this high
+   private static final int HISTORY_LIMIT = 1 << 16;
+   private TranspositionTable table;
+   
+   //the time (System.nanoTime()) at which the search has to stop
+   private long deadline;
+   //true if the search ran out of time and its results can not be trusted
+   private boolean stopped;
+   //set by another thread when this search has to stop
+   private volatile boolean aborted;
+   //the depth and best move of the deepest search that finished
+   private int completedDepth;
+   private Move completedMove;
+   
+   //the searchers that help this one in other threads
+   private Bot[] helpers;
+   private ExecutorService pool;
+   //the searcher that thinks on the opposing player's time; null if none
+   private Bot ponderer;
+   private ExecutorService ponderThread;
+   private Future<?> pondering;
+   //what the ponderer did since our last search, for the stats of the next one
+   private long pondered;
+   private int ponderDepth;
+   private long ponderAllocated;
+   //the bytes this searcher allocated in its last search in another thread
+   private long allocated;
+   //the best moves of the first states of a game; null if none
+   private OpeningBook book;
+   //solves the end of the game; null if none
+   private EndgameSolver solver;
+   //the most empty locations at which the solver is used
+   private int solverLimit;
+   
+   /*
+    * The moves of every ply of the search and the values used to order them.
+    *    These are made once, so that searching does not make any objects.
+    *    For more information on how moves are kept as ints, please refer to
+    *    Bitboard.toIndex(Move).
+    */
+   private final int[][] moves;
+   private final int[][] values;
+   //the move made at every ply of the current line of the search
+   private final int[] line;
+   
+   /*
+    * What earlier cutoffs tell us about the moves we have not searched yet.
+    *    Every searcher has its own, so no thread waits for another.
+    *    killers[ply][k]      the last two moves that cut off at the ply
+    *    history[id][move]    how often (weighted by depth) the move cut off
+    *    counters[id][move]   the move that last cut off right after the
+    *                            opposing player made the given move (which
+    *                            also decides the board we are sent to)
+    */
+   private final int[][] killers;
+   private final int[][] history;
+   private final int[][] counters;
+   
+   /*
+    * The principal variation of every ply (a triangular table): pv[ply]
+    *    holds the best line found from the state at the ply, from pv[ply][ply]
+    *    up to (not including) pv[ply][pvLength[ply]].
+    */
+   private final int[][] pv;
+   private final int[] pvLength;
+   
+   //true if we search with principal variation search
+   private final boolean pvs;
+   //the half width of the aspiration window; 0 if there is none
+   private final int aspiration;
+   //the value of the search to every depth that finished; NO_VALUE if none
+   private final int[] rootValues;
+   private static final int NO_VALUE = Integer.MIN_VALUE;
+   //the depth of the current iteration; lines are only extended up to twice
+   //as deep, so that extensions can not go on and on
+   private int rootDepth;
+   
+   //the settings of the selective search (see Options)
+   private final int lmrMoves;
+   private final int lmrDepth;
+   private final int lmrReduction;
+   private final boolean extending;
+   private final int pruneDepth;
+   private final int pruneMargin;
+
+   public Bot(int myId) {
+      this(myId, new Clock(), new Options());
+   }
+   
+   public Bot(int myId, Clock myClock, Options options) {
+      this(myId, myClock, new TranspositionTable(options.getHashSize()),
+            options);
+      this.helpers = new Bot[options.getThreads() - 1];
+      for (int i = 0; i < this.helpers.length; i++) {
+         this.helpers[i] = new Bot(myId, myClock, this.table, options);
+      }
+      if (this.helpers.length > 0) {
+         this.pool = Executors.newFixedThreadPool(this.helpers.length,
+               Bot.daemonThreads("search helper"));
+      }
+      if (options.isPondering()) {
+         this.ponderer = new Bot(myId, myClock, this.table, options);
+         this.ponderThread = Executors.newSingleThreadExecutor(
+               Bot.daemonThreads("ponder"));
+      }
+      if (options.getSolverLimit() > 0) {
+         this.solver = new EndgameSolver(this.board);
+         this.solverLimit = options.getSolverLimit();
+      }
+      if (!options.getBook().isEmpty()) {
+         try {
+            this.book = new OpeningBook(options.getBook());
+         } catch (IOException e) {
+            throw new IllegalArgumentException("book=" + options.getBook(), e);
+         }
+      }
+   }
+   
+   /**
+    * @param name the name of the threads
+    * @return  a ThreadFactory for threads that do not keep the bot running
+    */
+   private static ThreadFactory daemonThreads(final String name) {
+      return new ThreadFactory() {
+         @Override
+         public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+         }
+      };
+   }
+   
+   /**
+    * Makes a helper that shares the given table.
+    */
+   private Bot(int myId, Clock myClock, TranspositionTable myTable,
+         Options options) {
+      super(myId, myClock);
+      this.table = myTable;
+      this.helpers = new Bot[0];
+      this.moves = new int[Bot.MAX_DEPTH + 1][81];
+      this.values = new int[Bot.MAX_DEPTH + 1][81];
+      this.line = new int[Bot.MAX_DEPTH + 1];
+      this.killers = new int[Bot.MAX_DEPTH + 1][2];
+      this.history = new int[3][81];
+      this.counters = new int[3][81];
+      this.clearHeuristics();
+      this.pv = new int[Bot.MAX_DEPTH + 1][Bot.MAX_DEPTH + 1];
+      this.pvLength = new int[Bot.MAX_DEPTH + 1];
+      this.pvs = options.isPVS();
+      this.aspiration = options.getAspiration();
+      this.rootValues = new int[Bot.MAX_DEPTH + 1];
+      this.lmrMoves = options.getLMRMoves();
+      this.lmrDepth = options.getLMRDepth();
+      this.lmrReduction = options.getLMRReduction();
+      this.extending = options.isExtending();
+      this.pruneDepth = options.getPruneDepth();
+      this.pruneMargin = options.getPruneMargin();
+   }
+   
+   /**
+    * Iterative deepening: searches one move deeper at a time until we run out
+    *    of time, and uses the best move of the deepest search that finished.
+    *    We do not start a search we are unlikely to finish, and we stop as
+    *    soon as the result of the game is known.
+    * 
+    * @Precondition: there is at least one available move; otherwise,
+    *                   throw an IllegalStateException
+    * @param id         the id of the player that is about to move
+    * @param myDeadline the time (System.nanoTime()) at which we have to stop
+    * @return  the best move for the player
+    */
+   @Override
+   protected Move search(int id, long myDeadline) {
+      long start = System.nanoTime();
+      this.prepare(myDeadline);
+      this.table.newSearch();
+      this.stats.pondered = this.pondered;
+      this.stats.ponderDepth = this.ponderDepth;
+      this.stats.otherAllocated = this.ponderAllocated;
+      this.pondered = 0;
+      this.ponderDepth = 0;
+      this.ponderAllocated = 0;
+      if (this.board.getAvailableMoves(this.moves[0]) == 1) {
+         return Bitboard.toMove(this.moves[0][0], id);//nothing to think about
+      }
+      if (this.book != null) {
+         Move bookMove = this.book.getMove(this.board, id);
+         if (bookMove != null) {
+            return bookMove;
+         }
+      }
+      if (this.solver != null &&
+          this.board.getEmptyCount() <= this.solverLimit) {
+         Move solved = this.solver.solve(id, start + (myDeadline - start) / 2);
+         this.stats.nodes += this.solver.getNodes();
+         if (solved != null && solved.value != EndgameSolver.LOSS) {
+            return solved;
+         }
+      }
+      Future<?>[] running = this.startHelpers(id, myDeadline);
+      Move bestMove = this.deepen(id, 1, Bot.MAX_DEPTH, start, true);
+      return this.stopHelpers(running, bestMove);
+   }
+   
+   /**
+    * Gets ready for a new search.
+    * @param myDeadline the time (System.nanoTime()) at which we have to stop
+    */
+   private void prepare(long myDeadline) {
+      this.deadline = myDeadline;
+      this.stopped = false;
+      this.aborted = false;
+      this.stats.clear();
+      this.completedDepth = 0;
+      this.completedMove = null;
+      Arrays.fill(this.rootValues, Bot.NO_VALUE);
+      for (int[] slots : this.killers) {
+         Arrays.fill(slots, TranspositionTable.NO_MOVE);
+      }
+      this.ageHistory();
+   }
+   
+   /**
+    * @param id         the id of the player that is about to move
+    * @param firstDepth the depth of the first search
+    * @param lastDepth  the depth of the last search
+    * @param start      the time (System.nanoTime()) at which we started
+    * @param main       true if we should stop when we are unlikely to finish
+    *                      the next search; helpers keep going until they are
+    *                      stopped
+    * @return  the best move of the deepest search that finished; null if no
+    *             search finished
+    */
+   private Move deepen(int id, int firstDepth, int lastDepth, long start,
+         boolean main) {
+      long iterationStart = start;
+      for (int depth = firstDepth; depth <= lastDepth; depth++) {
+         Move move = this.aspire(id, depth);
+         if (move == null) {//ran out of time
+            break;
+         }
+         this.completedDepth = depth;
+         this.completedMove = move;
+         this.rootValues[depth] = move.value;
+         this.stats.depth = depth;
+         this.stats.setPV(this.pv[0], this.pvLength[0]);
+         long now = System.nanoTime();
+         this.stats.endIteration(now - iterationStart);
+         iterationStart = now;
+         if (Math.abs(move.value) >= Bot.WIN - Bot.MAX_DEPTH ||
+             (main && now - start > (this.deadline - start) / 2)) {
+            break;
+         }
+      }
+      return this.completedMove;
+   }
+   
+   /**
+    * Searches like a helper does (see deepen), in a thread of its own, and
+    *    keeps how many bytes that thread allocated while it did.
+    * @param id         the id of the player that is about to move
+    * @param firstDepth the depth of the first search
+    * @param start      the time (System.nanoTime()) at which we started
+    */
+   private void deepenInThread(int id, int firstDepth, long start) {
+      long before = SearchStats.allocatedBytes();
+      this.deepen(id, firstDepth, Bot.MAX_DEPTH, start, false);
+      this.allocated = SearchStats.allocatedBytes() - before;
+   }
+   
+   /**
+    * Starts every helper on a copy of the board.
+    * @param id         the id of the player that is about to move
+    * @param myDeadline the time (System.nanoTime()) at which we have to stop
+    * @return  the searches of the helpers
+    */
+   private Future<?>[] startHelpers(final int id, long myDeadline) {
+      final long start = System.nanoTime();
+      Future<?>[] running = new Future<?>[this.helpers.length];
+      for (int i = 0; i < this.helpers.length; i++) {
+         final Bot helper = this.helpers[i];
+         final int firstDepth = 1 + (i + 1) % 2;
+         helper.board.copy(this.board);
+         helper.prepare(myDeadline);
+         running[i] = this.pool.submit(new Runnable() {
+            @Override
+            public void run() {
+               helper.deepenInThread(id, firstDepth, start);
+            }
+         });
+      }
+      return running;
+   }
+   
+   /**
+    * Stops every helper and waits for it to finish.
+    * @param running    the searches of the helpers
+    * @param bestMove   the best move of this search
+    * @return  the best move of the deepest search that finished in any thread
+    */
+   private Move stopHelpers(Future<?>[] running, Move bestMove) {
+      int bestDepth = this.completedDepth;
+      for (int i = 0; i < this.helpers.length; i++) {
+         Bot helper = this.helpers[i];
+         helper.aborted = true;
+         try {
+            running[i].get();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+         }
+         this.stats.add(helper.stats);
+         this.stats.otherAllocated += helper.allocated;
+         if (helper.completedDepth > bestDepth) {
+            bestDepth = helper.completedDepth;
+            bestMove = helper.completedMove;
+            this.stats.setPV(helper.stats.pv, helper.stats.pvLength);
+         }
+      }
+      return bestMove;
+   }
+   
+   @Override
+   public void startPondering() {
+      if (this.ponderer == null || this.lastMove == null) {
+         return;
+      }
+      final Bot helper = this.ponderer;
+      final int oppID = Board.calculateOppID(this.id);
+      helper.board.copy(this.board);//our last move has been made
+      if (helper.board.getWinner() != 0 ||
+          helper.board.getAvailableMoves(helper.moves[0]) == 0) {
+         return;//the game is over
+      }
+      helper.prepare(Long.MAX_VALUE);
+      this.table.newSearch();
+      final long start = System.nanoTime();
+      this.pondering = this.ponderThread.submit(new Runnable() {
+         @Override
+         public void run() {
+            helper.deepenInThread(oppID, 1, start);
+         }
+      });
+   }
+   
+   @Override
+   public void stopPondering() {
+      if (this.pondering == null) {
+         return;
+      }
+      this.ponderer.aborted = true;
+      try {
+         this.pondering.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+         throw new IllegalStateException(e.getCause());
+      }
+      this.pondering = null;
+      this.pondered = this.ponderer.stats.getNodes();
+      this.ponderDepth = this.ponderer.completedDepth;
+      this.ponderAllocated = this.ponderer.allocated;
+   }
+   
+   /**
+    * Forgets the results of every earlier search, so that the next search
+    *    starts from nothing.
+    */
+   public void clearTable() {
+      this.table.clear();
+      this.clearHeuristics();
+      for (Bot helper : this.helpers) {
+         helper.clearHeuristics();
+      }
+      if (this.ponderer != null) {
+         this.ponderer.clearHeuristics();
+      }
+   }
+   
+   /**
+    * Forgets the killer moves, the history and the countermoves.
+    */
+   private void clearHeuristics() {
+      for (int[] slots : this.killers) {
+         Arrays.fill(slots, TranspositionTable.NO_MOVE);
+      }
+      for (int id = 1; id <= 2; id++) {
+         Arrays.fill(this.history[id], 0);
+         Arrays.fill(this.counters[id], TranspositionTable.NO_MOVE);
+      }
+   }
+   
+   /**
+    * Halves the history, so that the moves that cut off in the last
+    *    searches count more than the ones before.
+    */
+   private void ageHistory() {
+      for (int id = 1; id <= 2; id++) {
+         for (int move = 0; move < 81; move++) {
+            this.history[id][move] /= 2;
+         }
+      }
+   }
+   
+   /**
+    * Remembers a move that cut off, so that it is searched earlier in other
+    *    states. A move that wins the game is not remembered, since we never
+    *    have to guess about those.
+    * 
+    * @param id      the id of the player that made the move
+    * @param move    the move that cut off
+    * @param depth   the number of moves that were left to look ahead
+    * @param ply     the number of moves made since the root of the search
+    */
+   private void rememberCutoff(int id, int move, int depth, int ply) {
+      int[] slots = this.killers[ply];
+      if (slots[0] != move) {
+         slots[1] = slots[0];
+         slots[0] = move;
+      }
+      if (ply > 0) {
+         this.counters[id][this.line[ply - 1]] = move;
+      }
+      this.history[id][move] += depth * depth;
+      if (this.history[id][move] >= Bot.HISTORY_LIMIT) {
+         this.ageHistory();
+      }
+   }
+
+   /**
+    * @Precondition: max is greater than 0
+    *                there is at least one available move; otherwise,
+    *                   throw an IllegalStateException
+    * Searches one move deeper at a time (see deepen), up to the given depth.
+    * 
+    * @param id   the id of the player that is about to move
+    * @param max  the number of moves to look ahead
+    * @return  the best move for the player, valued at the result of the
+    *             search
+    */
+   public Move pickBestMove(int id, int max) {
+      this.prepare(Long.MAX_VALUE);
+      this.table.newSearch();
+      return this.deepen(id, 1, max, System.nanoTime(), false);
+   }
+   
+   /**
+    * Searches with a window around the value of the search two moves
+    *    shallower first. (The value of a state goes up and down with who
+    *    moved last, so the search one move shallower is a worse guess.)
+    *    Every time the value falls outside of the window, the window is made
+    *    twice as wide on that side and the search is done again.
+    * 
+    * @param id   the id of the player that is about to move
+    * @param max  the number of moves to look ahead
+    * @return  the best move for the player, valued at the result of the
+    *             search; null if the search ran out of time
+    */
+   private Move aspire(int id, int max) {
+      Move previous = this.completedMove;
+      int alpha = -Bot.INFINITY;
+      int beta = Bot.INFINITY;
+      int delta = this.aspiration;
+      int guess = max > 2 ? this.rootValues[max - 2] : Bot.NO_VALUE;
+      if (delta > 0 && guess != Bot.NO_VALUE &&
+          Math.abs(guess) < Bot.WIN - Bot.MAX_DEPTH) {
+         alpha = guess - delta;
+         beta = guess + delta;
+      }
+      while (true) {
+         Move move = this.searchRoot(id, max, previous, alpha, beta);
+         delta *= 2;
+         if (move == null) {
+            return null;
+         } else if (move.value <= alpha) {
+            alpha = delta < Bot.WIN ? move.value - delta : -Bot.INFINITY;
+         } else if (move.value >= beta) {
+            beta = delta < Bot.WIN ? move.value + delta : Bot.INFINITY;
+            previous = move;//it is better than the last best move
+         } else {
+            return move;
+         }
+      }
+   }
+   
+   /**
+    * @Precondition: max is greater than 0
+    *                there is at least one available move; otherwise,
+    *                   throw an IllegalStateException
+    * @param id   the id of the player that is about to move
+    * @param max  the number of moves to look ahead
+    * @param previous   the best move of a shallower search, which is searched
+    *                      first; null if there is none
+    * @param alpha   the least value we are looking for
+    * @param beta    the most value we are looking for
+    * @return  the best move for the player, valued at the result of the
+    *             search; null if the search ran out of time
+    *          If the value is at most alpha or at least beta, it is only a
+    *             bound on the real value.
+    */
+   private Move searchRoot(int id, int max, Move previous, int alpha,
+         int beta) {
+      int first = TranspositionTable.NO_MOVE;
+      if (previous != null) {
+         first = Bitboard.toIndex(previous);
+      }
+      int[] moves = this.moves[0];
+      int count = this.getOrderedMoves(id, first, 0);
+      if (count < 1) {
+         throw new IllegalStateException();
+      }
+      this.pvLength[0] = 0;
+      this.rootDepth = max;
+      int bestValue = -Bot.INFINITY;
+      int bestIndex = -1;
+      for (int i = 0; i < count; i++) {
+         this.pickMove(i, count, 0);
+         int move = moves[i];
+         int value;
+         if (this.board.isWinningMove(move, id)) {
+            value = Bot.WIN - 1;
+            this.pvLength[1] = 1;
+         } else {
+            //choose
+            this.line[0] = move;
+            int boards = this.board.makeMove(move, id);
+            //recurse
+            value = this.searchMove(Board.calculateOppID(id), max - 1,
+                  alpha, beta, 1, i);
+            //unchoose
+            this.board.unmakeMove(move, id, boards);
+         }
+         if (this.stopped) {
+            return null;
+         }
+         if (value > bestValue) {
+            bestValue = value;
+            bestIndex = move;
+            if (value > alpha) {
+               alpha = value;
+               this.updatePV(0, move);
+               if (alpha >= beta) {
+                  break;
+               }
+            }
+         }
+      }
+      Move bestMove = Bitboard.toMove(bestIndex, id);
+      bestMove.value = bestValue;
+      return bestMove;
+   }
+   
+   /**
+    * Searches the state after a move, from the point of view of the player
+    *    that made it. Every move but the first is searched with a null window
+    *    first, which only tells whether it is better than alpha; it is only
+    *    searched again with the whole window if it is.
+    * 
+    * @param oppID   the id of the player that is about to move
+    * @param depth   the number of moves left to look ahead
+    * @param alpha   the value the player that made the move is guaranteed
+    * @param beta    the value the player that is about to move is guaranteed
+    * @param ply     the number of moves made since the root of the search
+    * @param i       the number of moves searched before this one
+    * @return  the value of the move for the player that made it
+    */
+   private int searchMove(int oppID, int depth, int alpha, int beta, int ply,
+         int i) {
+      if (i == 0 || !this.pvs || beta - alpha == 1) {
+         return -this.negamax(oppID, depth, -beta, -alpha, ply);
+      }
+      int value = -this.negamax(oppID, depth, -alpha - 1, -alpha, ply);
+      if (value > alpha && value < beta && !this.stopped) {
+         value = -this.negamax(oppID, depth, -beta, -alpha, ply);
+      }
+      return value;
+   }
+   
+   /**
+    * @Precondition: the move has not been made yet
+    * @param move the index of the move
+    * @param id   the id of the player that makes the move
+    * @param ply  the ply whose buffers hold the moves
+    * @param i    the position of the move in the buffers
+    * @return  true if the move does not win or block a Microboard and was
+    *             not moved up the order by earlier searches
+    */
+   private boolean isQuiet(int move, int id, int ply, int i) {
+      int board = move / 9;
+      int cell = move % 9;
+      return this.values[ply][i] < Bot.COUNTER_BONUS &&
+             !this.board.isWinningLocation(board, cell, id) &&
+             !this.board.isWinningLocation(board, cell,
+                   Board.calculateOppID(id));
+   }
+   
+   /**
+    * @return  true if the player that is about to move can choose from more
+    *             than one board
+    */
+   private boolean isFreeChoice() {
+      int active = this.board.getActive();
+      return (active & (active - 1)) != 0;
+   }
+   
+   /**
+    * @Precondition: the move has just been made
+    * @param move the index of the move
+    * @param id   the id of the player that made the move
+    * @return  true if the move won a board, and the player can now win the
+    *             game by winning one more
+    */
+   private boolean threatens(int move, int id) {
+      if (this.board.getID(move / 9) != id) {
+         return false;
+      }
+      int own = this.board.getWon(id);
+      return Lines.getThreats(own, this.board.getDecided() & ~own) != 0;
+   }
+   
+   /**
+    * Makes the principal variation of the given ply the given move followed
+    *    by the principal variation of the next ply.
+    * 
+    * @param ply  the number of moves made since the root of the search
+    * @param move the best move at the ply so far
+    */
+   private void updatePV(int ply, int move) {
+      int[] line = this.pv[ply];
+      int[] next = this.pv[ply + 1];
+      int length = Math.max(this.pvLength[ply + 1], ply + 1);
+      line[ply] = move;
+      for (int i = ply + 1; i < length; i++) {
+         line[i] = next[i];
+      }
+      this.pvLength[ply] = length;
+   }
+   
+   /**
+    * Fail-soft negamax with alpha-beta pruning.
+    * 
+    * @param id      the id of the player that is about to move
+    * @param depth   the number of moves left to look ahead
+    * @param alpha   the value the player is already guaranteed
+    * @param beta    the value the opposing player is already guaranteed
+    * @param ply     the number of moves made since the root of the search
+    * @return  the value of the board for the player with the given id
+    *          If the value is at most alpha or at least beta, it is only a
+    *             bound on the real value.
+    */
+   private int negamax(int id, int depth, int alpha, int beta, int ply) {
+      this.pvLength[ply] = ply;
+      if (++this.stats.nodes % Bot.CHECK_INTERVAL == 0 &&
+          (System.nanoTime() >= this.deadline || this.aborted)) {
+         this.stopped = true;
+      }
+      if (this.stopped) {//the value does not matter anymore
+         return 0;
+      }
+      if (this.board.getWinner() != 0) {//the last move won the game
+         return -(Bot.WIN - ply);
+      }
+      if (depth == 0) {//base case
+         return this.evaluate(id);
+      }
+      //every symmetry of the state shares one entry (see Symmetry)
+      int symmetry = Symmetry.getCanonical(this.board);
+      long hash = this.board.getHash(symmetry);
+      long entry = this.table.probe(hash);
+      int bestIndex = TranspositionTable.NO_MOVE;
+      this.stats.probes++;
+      if (entry != 0) {
+         this.stats.hits++;
+         bestIndex = Symmetry.fromCanonical(TranspositionTable.getMove(entry),
+               symmetry);
+         if (TranspositionTable.getDepth(entry) >= depth) {
+            int value = Bot.fromTable(TranspositionTable.getValue(entry), ply);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT ||
+                (bound == TranspositionTable.LOWER && value >= beta) ||
+                (bound == TranspositionTable.UPPER && value <= alpha)) {
+               return value;
+            }
+         }
+      }
+      int[] moves = this.moves[ply];
+      int count = this.getOrderedMoves(id, bestIndex, ply);
+      if (count == 0) {//every board is decided, but nobody won
+         return 0;
+      }
+      this.stats.expanded++;
+      int originalAlpha = alpha;
+      int bestValue = -Bot.INFINITY;
+      int oppID = Board.calculateOppID(id);
+      boolean extendable = this.extending && ply < 2 * this.rootDepth;
+      //hopeless moves are only skipped this close to the leaves
+      boolean pruning = depth <= this.pruneDepth;
+      //the most a hopeless move could be worth
+      int futility = 0;
+      if (pruning) {
+         futility = this.evaluate(id) + this.pruneMargin;
+      }
+      for (int i = 0; i < count; i++) {
+         this.pickMove(i, count, ply);
+         int move = moves[i];
+         this.stats.searched++;
+         if (this.board.isWinningMove(move, id)) {
+            this.countCutoff(i);
+            this.pvLength[ply + 1] = ply + 1;
+            this.updatePV(ply, move);
+            return Bot.WIN - (ply + 1);
+         }
+         boolean quiet = i > 0 && this.isQuiet(move, id, ply, i);
+         this.line[ply] = move;
+         int boards = this.board.makeMove(move, id);
+         if (pruning && quiet && futility <= alpha && this.isFreeChoice()) {
+            //even if it went well, it would not be enough
+            this.board.unmakeMove(move, id, boards);
+            bestValue = Math.max(bestValue, futility);
+            continue;
+         }
+         int extension = 0;
+         if (extendable && (count == 1 || this.threatens(move, id))) {
+            extension = 1;
+         }
+         int value;
+         if (quiet && extension == 0 && this.lmrMoves > 0 &&
+             i >= this.lmrMoves && depth >= this.lmrDepth) {
+            value = -this.negamax(oppID,
+                  Math.max(depth - 1 - this.lmrReduction, 0),
+                  -alpha - 1, -alpha, ply + 1);
+            if (value > alpha && !this.stopped) {//it was not so quiet
+               value = this.searchMove(oppID, depth - 1, alpha, beta,
+                     ply + 1, i);
+            }
+         } else {
+            value = this.searchMove(oppID, depth - 1 + extension, alpha,
+                  beta, ply + 1, i);
+         }
+         this.board.unmakeMove(move, id, boards);
+         if (this.stopped) {
+            return 0;
+         }
+         if (value > bestValue) {
+            bestValue = value;
+            bestIndex = move;
+            if (value > alpha) {
+               alpha = value;
+               this.updatePV(ply, move);
+               if (alpha >= beta) {//the opposing player will avoid this
+                  this.countCutoff(i);
+                  this.rememberCutoff(id, move, depth, ply);
+                  break;
+               }
+            }
+         }
+      }
+      int bound = TranspositionTable.EXACT;
+      if (bestValue <= originalAlpha) {
+         bound = TranspositionTable.UPPER;
+      } else if (bestValue >= beta) {
+         bound = TranspositionTable.LOWER;
+      }
+      this.table.store(hash, depth, bound, Bot.toTable(bestValue, ply),
+            Symmetry.toCanonical(bestIndex, symmetry));
+      return bestValue;
+   }
+   
+   /**
+    * @param i the number of moves searched before the one that cut off
+    */
+   private void countCutoff(int i) {
+      this.stats.cutoffs++;
+      if (i == 0) {
+         this.stats.firstCutoffs++;
+      }
+   }
+   
+   /**
+    * Values of wins count the moves from the root of the search, but an entry
+    *    in the table can be reached at any ply. So the table counts the moves
+    *    from the state of the entry instead.
+    * 
+    * @param value   a value counted from the root
+    * @param ply     the number of moves made since the root
+    * @return  the value counted from the current state
+    */
+   private static int toTable(int value, int ply) {
+      if (value >= Bot.WIN - Bot.MAX_DEPTH) {
+         return value + ply;
+      } else if (value <= -(Bot.WIN - Bot.MAX_DEPTH)) {
+         return value - ply;
+      }
+      return value;
+   }
+   
+   /**
+    * The opposite of toTable(int value, int ply).
+    */
+   private static int fromTable(int value, int ply) {
+      if (value >= Bot.WIN - Bot.MAX_DEPTH) {
+         return value - ply;
+      } else if (value <= -(Bot.WIN - Bot.MAX_DEPTH)) {
+         return value + ply;
+      }
+      return value;
+   }
+   
+   /**
+    * Values the board without looking ahead. The board keeps its value up to
+    *    date as moves are made, so see Bitboard.getValue(int id) for how it
+    *    is valued.
+    * 
+    * @param id   the id of the player that is about to move
+    * @return  the value of the board for the player with the given id
+    */
+   private int evaluate(int id) {
+      return this.board.getValue(id);
+   }
+   
+   /**
+    * Values the available moves so that the moves most likely to be best are
+    *    searched first:
+    *       1. moves that win a Microboard
+    *       2. moves that block the opposing player from winning a Microboard
+    *       3. the killer moves of the ply, then the countermove to the last
+    *             move of the opposing player
+    *       4. the rest of the moves, by the value of their lines plus their
+    *             history
+    *       5. moves that send the opposing player to a board that is decided,
+    *             which lets the opposing player choose any board
+    *    The best move of an earlier search of the state always goes first.
+    * 
+    * @param id      the id of the player that is about to move
+    * @param first   the index of the move to search first, or
+    *                   TranspositionTable.NO_MOVE
+    * @param ply     the ply whose buffers the moves are written into
+    * @return  the number of available moves
+    */
+   private int getOrderedMoves(int id, int first, int ply) {
+      int[] moves = this.moves[ply];
+      int[] values = this.values[ply];
+      int count = this.board.getAvailableMoves(moves);
+      int oppID = Board.calculateOppID(id);
+      int decided = this.board.getDecided();
+      int[] slots = this.killers[ply];
+      int counter = TranspositionTable.NO_MOVE;
+      if (ply > 0) {
+         counter = this.counters[id][this.line[ply - 1]];
+      }
+      int[] history = this.history[id];
+      for (int i = 0; i < count; i++) {
+         int board = moves[i] / 9;
+         int cell = moves[i] % 9;
+         if (moves[i] == first) {
+            values[i] = Integer.MAX_VALUE;
+            continue;
+         }
+         values[i] = this.getMoveValue(board, cell, id) + history[moves[i]];
+         if (moves[i] == slots[0]) {
+            values[i] += Bot.KILLER_BONUS;
+         } else if (moves[i] == slots[1]) {
+            values[i] += Bot.KILLER_BONUS - 1;
+         } else if (moves[i] == counter) {
+            values[i] += Bot.COUNTER_BONUS;
+         }
+         boolean decides = Integer.bitCount(this.board.getEmpty(board)) == 1;
+         if (this.board.isWinningLocation(board, cell, id)) {
+            values[i] += Bot.WIN;
+            decides = true;
+         } else if (this.board.isWinningLocation(board, cell, oppID)) {
+            values[i] += Bot.WIN / 2;
+         }
+         if ((decided & (1 << cell)) != 0 || (cell == board && decides)) {
+            values[i] -= Bot.WIN;
+         }
+      }
+      return count;
+   }
+   
+   /**
+    * Moves the best of the moves that have not been searched yet to the
+    *    given position. Most searches only look at a few moves before they
+    *    cut off, so this is cheaper than sorting all of them.
+    * 
+    * @param next    the position of the next move to search
+    * @param count   the number of moves
+    * @param ply     the ply whose buffers hold the moves
+    */
+   private void pickMove(int next, int count, int ply) {
+      int[] moves = this.moves[ply];
+      int[] values = this.values[ply];
+      int best = next;
+      for (int i = next + 1; i < count; i++) {
+         if (values[i] > values[best]) {
+            best = i;
+         }
+      }
+      int move = moves[next];
+      int value = values[next];
+      moves[next] = moves[best];
+      values[next] = values[best];
+      moves[best] = move;
+      values[best] = value;
+   }
+   
+   /**
+    * @Precondition: the move has not been made yet
+    * @param board   the board of the move
+    * @param cell    the location of the move within the board
+    * @param id      the id of the player that makes the move
+    * @return  the value of the lines through the move
+    */
+   private int getMoveValue(int board, int cell, int id) {
+      int oppID = Board.calculateOppID(id);
+      int boardValue = this.getValue(this.board.getCells(board, id),
+            this.board.getCells(board, oppID), cell);
+      int macroboardValue = this.getValue(this.board.getWon(id),
+            this.board.getWon(oppID), board);
+      return 100 * macroboardValue + boardValue;
+   }
+   
+   /**
+    * @param own  mask of locations that belong to the player
+    * @param opp  mask of locations that belong to the opposing player
+    * @param loc  the location we are valuing
+    * @return  the sum of 10^(number of the player's locations) over every
+    *             line through the given location that the opposing player
+    *             has not blocked
+    */
+   private int getValue(int own, int opp, int loc) {
+      int sum = 0;
+      for (int line : Lines.getLinesThrough(loc)) {
+         if ((line & opp) == 0) {
+            int numInLine = Integer.bitCount(line & own);
+            sum += Bot.POWERS[numInLine];
+         }
+      }
+      return sum;
+   }
+}
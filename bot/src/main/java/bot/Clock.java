@@ -0,0 +1,59 @@
+package bot;
+
+/**
+ * Clock keeps track of the time settings that the engine gives us and
+ *    decides how much of our time we can spend on a single move.
+ *
+ * The engine gives us a timebank that we are not allowed to run out of.
+ *    Every time we are asked for a move, time_per_move is added to it
+ *    (up to the size of the timebank), and we are told how much time we
+ *    have left.
+ *
+ * All times are in milliseconds.
+ */
+public class Clock {
+
+   //the number of moves we expect to still have to make in a game
+   private static final int MOVES_TO_GO = 20;
+   //time we keep for reading the input and printing our move
+   private static final int MARGIN = 30;
+   //the least amount of time we will ever try to spend on a move
+   private static final int MIN_BUDGET = 5;
+
+   private int timebank;
+   private int timePerMove;
+
+   public Clock() {
+      this.timebank = 10000;
+      this.timePerMove = 500;
+   }
+
+   public void setTimebank(int myTimebank) {
+      this.timebank = myTimebank;
+   }
+
+   public void setTimePerMove(int myTimePerMove) {
+      this.timePerMove = myTimePerMove;
+   }
+
+   public int getTimebank() {
+      return this.timebank;
+   }
+
+   public int getTimePerMove() {
+      return this.timePerMove;
+   }
+
+   /**
+    * We spend the time that is added for every move plus a share of what we
+    *    have saved up, but never more than half of the time we have left.
+    *
+    * @param timeLeft   the time we have left, as given by the engine
+    * @return  the time we can spend searching for our next move
+    */
+   public int getBudget(int timeLeft) {
+      int budget = Math.min(this.timePerMove + timeLeft / Clock.MOVES_TO_GO,
+                            timeLeft / 2);
+      return Math.max(budget - Clock.MARGIN, Clock.MIN_BUDGET);
+   }
+}
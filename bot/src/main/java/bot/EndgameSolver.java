@@ -0,0 +1,243 @@
+package bot;
+
+/**
+ * An EndgameSolver finds out whether a state is a win, a draw, or a loss
+ *    with perfect play, by searching every move to the end of the game.
+ *    Late in a game there are few empty locations left, so this is possible
+ *    within the time we have, and it finds wins (and saves draws) that a
+ *    search with a heuristic value and a limited depth would miss.
+ *
+ * Every value is from the point of view of the player that is about to move:
+ *    WIN, DRAW, or LOSS. There are only three values, so alpha-beta cuts off
+ *    much more than it does in Bot, and results never depend on the depth,
+ *    so the solver keeps its own small table of results (see Bot for the
+ *    transposition table of the heuristic search):
+ *       bits 0-1    the value + 1
+ *       bits 2-3    the type of bound (see TranspositionTable)
+ *       bits 4-10   the index of the best move in the canonical state
+ *    Like the transposition table, the table is looked up by the canonical
+ *    key of the state (see Symmetry).
+ */
+public class EndgameSolver {
+
+   public static final int WIN = 1;
+   public static final int DRAW = 0;
+   public static final int LOSS = -1;
+
+   //the most moves a game can last
+   private static final int MAX_DEPTH = 81;
+   //how many nodes we visit between checks of the clock
+   private static final int CHECK_INTERVAL = 1024;
+   //number of entries in the table of results (a power of two)
+   private static final int TABLE_SIZE = 1 << 18;
+
+   private final Bitboard board;
+   private final long[] keys;
+   private final int[] results;
+
+   //the time (System.nanoTime()) at which the solver has to stop
+   private long deadline;
+   //true if the solver ran out of time and its results can not be trusted
+   private boolean stopped;
+   private long nodes;
+
+   //the moves of every ply, made once so that solving does not make objects
+   private final int[][] moves;
+
+   /**
+    * @param myBoard the state to solve, which is changed while solving but
+    *                   is the same again afterwards
+    */
+   public EndgameSolver(Bitboard myBoard) {
+      this.board = myBoard;
+      this.keys = new long[EndgameSolver.TABLE_SIZE];
+      this.results = new int[EndgameSolver.TABLE_SIZE];
+      this.moves = new int[EndgameSolver.MAX_DEPTH + 1][81];
+   }
+
+   /**
+    * @Precondition: there is at least one available move; otherwise,
+    *                   throw an IllegalStateException
+    * @param id         the id of the player that is about to move
+    * @param myDeadline the time (System.nanoTime()) at which we have to stop
+    * @return  the best move for the player, valued at WIN, DRAW, or LOSS;
+    *             null if we ran out of time before the state was solved
+    */
+   public Move solve(int id, long myDeadline) {
+      this.deadline = myDeadline;
+      this.stopped = false;
+      this.nodes = 0;
+      int[] rootMoves = this.moves[0];
+      int count = this.getOrderedMoves(id, TranspositionTable.NO_MOVE, 0);
+      if (count < 1) {
+         throw new IllegalStateException();
+      }
+      int oppID = Board.calculateOppID(id);
+      int bestIndex = rootMoves[0];
+      int bestValue = EndgameSolver.LOSS - 1;
+      for (int i = 0; i < count && bestValue < EndgameSolver.WIN; i++) {
+         int boards = this.board.makeMove(rootMoves[i], id);
+         int value = -this.solve(oppID, EndgameSolver.LOSS,
+               -Math.max(bestValue, EndgameSolver.LOSS), 1);
+         this.board.unmakeMove(rootMoves[i], id, boards);
+         if (this.stopped) {
+            return null;
+         }
+         if (value > bestValue) {
+            bestValue = value;
+            bestIndex = rootMoves[i];
+         }
+      }
+      Move bestMove = Bitboard.toMove(bestIndex, id);
+      bestMove.value = bestValue;
+      return bestMove;
+   }
+
+   /**
+    * @return  the number of nodes of the last call to solve(int, long)
+    */
+   public long getNodes() {
+      return this.nodes;
+   }
+
+   /**
+    * @param id      the id of the player that is about to move
+    * @param alpha   the value the player is already sure of
+    * @param beta    the value the opposing player is already sure of
+    * @param ply     the number of moves made since the root
+    * @return  the value of the state for the player
+    */
+   private int solve(int id, int alpha, int beta, int ply) {
+      this.nodes++;
+      if (this.nodes % EndgameSolver.CHECK_INTERVAL == 0 &&
+          System.nanoTime() >= this.deadline) {
+         this.stopped = true;
+      }
+      if (this.stopped) {
+         return EndgameSolver.DRAW;
+      }
+      if (this.board.getWinner() != 0) {//the last move won the game
+         return EndgameSolver.LOSS;
+      }
+      int symmetry = Symmetry.getCanonical(this.board);
+      long hash = this.board.getHash(symmetry);
+      int slot = (int)hash & (EndgameSolver.TABLE_SIZE - 1);
+      int first = TranspositionTable.NO_MOVE;
+      if (this.keys[slot] == hash && this.results[slot] != 0) {
+         int result = this.results[slot];
+         int value = (result & 0x3) - 1;
+         int bound = (result >> 2) & 0x3;
+         if (bound == TranspositionTable.EXACT ||
+             (bound == TranspositionTable.LOWER && value >= beta) ||
+             (bound == TranspositionTable.UPPER && value <= alpha)) {
+            return value;
+         }
+         first = Symmetry.fromCanonical((result >> 4) & 0x7F, symmetry);
+      }
+      int[] moves = this.moves[ply];
+      int count = this.getOrderedMoves(id, first, ply);
+      if (count == 0) {//every board is decided and nobody won
+         return EndgameSolver.DRAW;
+      }
+      if (this.board.isWinningMove(moves[0], id)) {
+         this.store(slot, hash, EndgameSolver.WIN, TranspositionTable.EXACT,
+               Symmetry.toCanonical(moves[0], symmetry));
+         return EndgameSolver.WIN;
+      }
+      int oppID = Board.calculateOppID(id);
+      int originalAlpha = alpha;
+      int bestValue = EndgameSolver.LOSS - 1;
+      int bestIndex = moves[0];
+      for (int i = 0; i < count; i++) {
+         int boards = this.board.makeMove(moves[i], id);
+         int value = -this.solve(oppID, -beta, -alpha, ply + 1);
+         this.board.unmakeMove(moves[i], id, boards);
+         if (this.stopped) {
+            return EndgameSolver.DRAW;
+         }
+         if (value > bestValue) {
+            bestValue = value;
+            bestIndex = moves[i];
+         }
+         alpha = Math.max(alpha, value);
+         if (alpha >= beta) {
+            break;
+         }
+      }
+      int bound = TranspositionTable.EXACT;
+      if (bestValue <= originalAlpha) {
+         bound = TranspositionTable.UPPER;
+      } else if (bestValue >= beta) {
+         bound = TranspositionTable.LOWER;
+      }
+      this.store(slot, hash, bestValue, bound,
+            Symmetry.toCanonical(bestIndex, symmetry));
+      return bestValue;
+   }
+
+   /**
+    * @param slot    the entry of the table to write
+    * @param hash    the Zobrist hash of the state
+    * @param value   WIN, DRAW, or LOSS
+    * @param bound   the type of bound that the value is
+    * @param move    the index of the best move
+    */
+   private void store(int slot, long hash, int value, int bound, int move) {
+      this.keys[slot] = hash;
+      this.results[slot] = (value + 1) | (bound << 2) | (move << 4);
+   }
+
+   /**
+    * Writes the available moves into the buffer of the given ply, in the
+    *    order they should be searched:
+    *       1. a move that wins the game, if there is one
+    *       2. the best move of an earlier search of the state
+    *       3. moves that send the opposing player to a board that can be
+    *             played
+    *       4. moves that let the opposing player choose any board, which
+    *             are rarely good
+    *
+    * @param id      the id of the player that is about to move
+    * @param first   the index of the move to search first, or
+    *                   TranspositionTable.NO_MOVE
+    * @param ply     the ply whose buffer the moves are written into
+    * @return  the number of available moves
+    */
+   private int getOrderedMoves(int id, int first, int ply) {
+      int[] moves = this.moves[ply];
+      int count = this.board.getAvailableMoves(moves);
+      int decided = this.board.getDecided();
+      int won = this.board.getWon(id);
+      //only a board that would complete a line of boards can win the game
+      int threats = Lines.getThreats(won, decided & ~won);
+      if ((threats & this.board.getActive()) != 0) {
+         for (int i = 0; i < count; i++) {
+            if (this.board.isWinningMove(moves[i], id)) {
+               EndgameSolver.swap(moves, i, 0);
+               return count;//nothing else has to be searched
+            }
+         }
+      }
+      int next = 0;
+      for (int i = 0; i < count; i++) {
+         if (moves[i] == first) {
+            EndgameSolver.swap(moves, i, 0);
+            next = 1;
+            break;
+         }
+      }
+      for (int i = next; i < count; i++) {
+         if ((decided & (1 << (moves[i] % 9))) == 0) {
+            EndgameSolver.swap(moves, i, next);
+            next++;
+         }
+      }
+      return count;
+   }
+
+   private static void swap(int[] moves, int i, int j) {
+      int move = moves[i];
+      moves[i] = moves[j];
+      moves[j] = move;
+   }
+}
@@ -0,0 +1,183 @@
+package bot;
+
+import java.util.function.Consumer;
+
+/**
+ * An Engine is an artificial intelligence that plays Ultimate Tic Tac Toe.
+ *    It keeps track of the state of the game that the engine gives us, and
+ *    every kind of Engine has its own way of searching for the best move.
+ *
+ * The kind of Engine is picked with the engine option (see Options):
+ *    negamax  Bot, which searches with negamax
+ *    mcts     MonteCarloBot, which searches with Monte Carlo Tree Search
+ */
+public abstract class Engine {
+
+   protected final Bitboard board;
+   protected final Clock clock;
+   public final int id;
+   //our last move, which has been made on the board; null before our first
+   //move
+   protected Move lastMove;
+   //what the last search did; filled in by the kind of Engine
+   protected final SearchStats stats;
+   //records every search as a SearchEvent; null if the jfr option is off
+   private Consumer<SearchStats> recorder;
+
+   public Engine(int myId, Clock myClock) {
+      this.board = new Bitboard();
+      this.clock = myClock;
+      this.id = myId;
+      this.stats = new SearchStats(this.getClass().getSimpleName());
+   }
+
+   /**
+    * @Precondition: the JVM can record SearchEvents if the options ask for
+    *                   it; otherwise, throws an IllegalArgumentException
+    * @param id         our id
+    * @param clock      the time settings given by the engine
+    * @param options    the settings of the bot
+    * @return  the kind of Engine that the options ask for
+    */
+   public static Engine create(int id, Clock clock, Options options) {
+      Engine engine;
+      if (options.getEngine().equals("mcts")) {
+         engine = new MonteCarloBot(id, clock, options);
+      } else {
+         engine = new Bot(id, clock, options);
+      }
+      if (options.isRecording()) {
+         engine.recorder = Engine.loadRecorder();
+      }
+      return engine;
+   }
+
+   /**
+    * SearchEvent is built for Java 11 apart from the rest of the bot, so it
+    *    is only loaded by name, and only when it is asked for.
+    *
+    * @Precondition: the JVM runs Java 11 or later and SearchEvent was built;
+    *                   otherwise, throws an IllegalArgumentException
+    * @return  what records every search as a SearchEvent
+    */
+   @SuppressWarnings("unchecked")
+   private static Consumer<SearchStats> loadRecorder() {
+      try {
+         Class<?> recorder = Class.forName("bot.SearchEvent$Recorder");
+         return (Consumer<SearchStats>)
+               recorder.getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException | LinkageError e) {
+         throw new IllegalArgumentException(
+               "jfr=true needs Java 11 or later", e);
+      }
+   }
+
+   public void setField(String newField) {
+      this.board.updateField(newField);
+   }
+
+   public void setMacroboard(String newMacroboard) {
+      this.board.updateBoards(newMacroboard);
+   }
+
+   /**
+    * Usually the field is our state plus the last move of the opposing
+    *    player, so only that move is made. Anything else (e.g. the first
+    *    field of a game we joined late) replaces the whole state.
+    *
+    * @param ids  the id of every location, in the order the engine sends them
+    */
+   public void setField(int[] ids) {
+      if (!this.board.applyField(ids, Board.calculateOppID(this.id))) {
+         this.board.updateField(ids);
+      }
+   }
+
+   /**
+    * @param ids  the id of every board, in the order the engine sends them
+    */
+   public void setMacroboard(int[] ids) {
+      this.board.updateBoards(ids);
+   }
+
+   /**
+    * Also keeps the statistics of the search (see getStats()).
+    *
+    * @param timeLeft   the time we have left in milliseconds
+    * @return  the location of our best move, as the engine expects it:
+    *             "x y"; empty if no search finished in time
+    */
+   public String pickBestMove(int timeLeft) {
+      String result = "";
+      this.stats.clear();
+      long allocated = SearchStats.allocatedBytes();
+      long start = System.nanoTime();
+      long budget = this.clock.getBudget(timeLeft) * 1000000L;
+      Move bestMove = this.search(this.id, start + budget);
+      long elapsed = System.nanoTime() - start;
+      if (allocated >= 0) {
+         allocated = SearchStats.allocatedBytes() - allocated;
+      }
+      this.stats.endSearch(elapsed, allocated);
+      if (this.recorder != null) {
+         this.recorder.accept(this.stats);
+      }
+      this.play(bestMove);
+      if (bestMove != null) {
+         int col = bestMove.boardCol * 3 + bestMove.col;
+         result += col + " ";
+         int row = bestMove.boardRow * 3 + bestMove.row;
+         result += row;
+      } else {
+         //not on System.out, which only the engine should read
+         System.err.println("no search finished in time");
+      }
+      return result;
+   }
+
+   /**
+    * Makes our move on our state, so that it stays the engine's and
+    *    setField only has to make the move of the opposing player.
+    *
+    * @param move our move; null if we have none
+    */
+   void play(Move move) {
+      this.lastMove = move;
+      if (move != null) {
+         this.board.makeMove(move);
+      }
+   }
+
+   /**
+    * @return  the statistics of the last search; toString() gives them as
+    *             one line of key=value pairs
+    */
+   public SearchStats getStats() {
+      return this.stats;
+   }
+
+   /**
+    * Starts thinking about the state after our last move while the opposing
+    *    player is thinking. Does nothing unless the kind of Engine supports
+    *    it. To be followed by stopPondering() before the state changes.
+    */
+   public void startPondering() {
+   }
+
+   /**
+    * Stops thinking on the opposing player's time and waits until we have
+    *    stopped. Does nothing if we are not thinking.
+    */
+   public void stopPondering() {
+   }
+
+   /**
+    * @Precondition: there is at least one available move; otherwise,
+    *                   throw an IllegalStateException
+    * @param id         the id of the player that is about to move
+    * @param deadline   the time (System.nanoTime()) at which we have to stop
+    * @return  the best move for the player; null if no search finished in
+    *             time
+    */
+   protected abstract Move search(int id, long deadline);
+}
@@ -0,0 +1,512 @@
+package bot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GameServer plays many games at once in one JVM, so that every game does not
+ *    have to start a JVM and warm up the JIT again.
+ *    e.g. java bot.GameServer port=7000 workers=4 threads=1
+ *
+ * Every connection is one game (a session), with its own Parser, Clock and
+ *    bot, and speaks the same protocol as the engine does on standard input
+ *    (settings, update and action lines in; place_move lines out).
+ *
+ * One thread waits on all of the connections with a Selector that does not
+ *    block, and hands the bytes that arrive to the session they belong to.
+ *    The lines of a session are handled (and its moves searched) by a fixed
+ *    number of worker threads, one line after another, so no session is
+ *    handled by more than one worker at a time and a slow search never holds
+ *    up the Selector. When every worker is busy, a session has to wait for
+ *    one, and that time is taken off the time it has left for the move (see
+ *    Parser.handleLine(int)), so every session keeps to its own clock.
+ *
+ * A session ends when the other side stops sending (or the connection
+ *    breaks), but only after the lines it already sent have been handled and
+ *    our moves have been written, so a client can send its last lines and
+ *    shut down its output while it waits for our move.
+ *
+ * Since the workers are the only threads that search, every bot searches
+ *    with one thread and does not ponder: the threads and ponder options are
+ *    not allowed.
+ *
+ * Usage (every argument is an optional key=value pair):
+ *    host        the address to listen on (default 127.0.0.1)
+ *    port        the port to listen on (default 7000)
+ *    workers     the number of threads that search (default the number of
+ *                   cores)
+ *    sessions    the most games at once; later connections are closed until
+ *                   a game ends (default 64)
+ *    <key>       an option of every bot (see Options); the hash defaults to
+ *                   16, since there is one table per game; threads and
+ *                   ponder can not be set
+ */
+public class GameServer {
+
+   private final InetSocketAddress address;
+   private final int maxSessions;
+   private final Options options;
+   private final ExecutorService workers;
+   private final Selector selector;
+   //sessions whose keys the Selector thread has to change, from any thread
+   private final Queue<Session> changed;
+   private int sessions;
+   private int nextNumber;
+
+   /**
+    * @param myAddress     the address to listen on
+    * @param workerCount   the number of threads that search
+    * @param myMaxSessions the most games at once
+    * @Precondition: the options search with one thread and do not ponder;
+    *                   otherwise, throws an IllegalArgumentException
+    * @param myOptions     the settings of every bot
+    */
+   public GameServer(InetSocketAddress myAddress, int workerCount,
+         int myMaxSessions, Options myOptions) throws IOException {
+      if (myOptions.getThreads() != 1 || myOptions.isPondering()) {
+         //only the workers may search, or they would not limit anything
+         throw new IllegalArgumentException("threads=" +
+               myOptions.getThreads() + " ponder=" + myOptions.isPondering() +
+               ": use workers instead");
+      }
+      this.address = myAddress;
+      this.maxSessions = myMaxSessions;
+      this.options = myOptions;
+      this.workers = Executors.newFixedThreadPool(workerCount);
+      this.selector = Selector.open();
+      this.changed = new ArrayDeque<Session>();
+   }
+
+   public static void main(String[] args) throws IOException {
+      String host = "127.0.0.1";
+      int port = 7000;
+      int workerCount = Runtime.getRuntime().availableProcessors();
+      int maxSessions = 64;
+      Options options = new Options();
+      options.set("hash", "16");
+      for (String arg : args) {
+         int split = arg.indexOf('=');
+         if (split < 0) {
+            throw new IllegalArgumentException(arg);
+         }
+         String key = arg.substring(0, split);
+         String value = arg.substring(split + 1);
+         if (key.equals("host")) {
+            host = value;
+         } else if (key.equals("port")) {
+            port = Options.parseNonNegative(key, value);
+         } else if (key.equals("workers")) {
+            workerCount = Options.parsePositive(key, value);
+         } else if (key.equals("sessions")) {
+            maxSessions = Options.parsePositive(key, value);
+         } else {
+            options.set(key, value);
+         }
+      }
+      GameServer server = new GameServer(new InetSocketAddress(host, port),
+            workerCount, maxSessions, options);
+      server.run();
+   }
+
+   /**
+    * Accepts games and passes their bytes on until the thread is interrupted.
+    */
+   public void run() throws IOException {
+      ServerSocketChannel server = ServerSocketChannel.open();
+      try {
+         server.bind(this.address);
+         server.configureBlocking(false);
+         server.register(this.selector, SelectionKey.OP_ACCEPT);
+         System.err.println("listening on " + server.getLocalAddress());
+         ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+         while (!Thread.currentThread().isInterrupted()) {
+            this.selector.select();
+            this.applyChanges();
+            Iterator<SelectionKey> keys =
+                  this.selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+               SelectionKey key = keys.next();
+               keys.remove();
+               if (!key.isValid()) {
+                  continue;
+               }
+               if (key.isAcceptable()) {
+                  this.accept(server);
+               } else {
+                  Session session = (Session) key.attachment();
+                  if (key.isReadable()) {
+                     this.read(session, buffer);
+                  }
+                  if (key.isValid() && key.isWritable()) {
+                     session.write();
+                     this.update(session);
+                  }
+               }
+            }
+         }
+      } finally {
+         server.close();
+         this.workers.shutdownNow();
+      }
+   }
+
+   /**
+    * Accepts a connection as a new session, or closes it if there are as
+    *    many sessions as there can be.
+    *
+    * @param server  the channel that has a connection waiting
+    */
+   private void accept(ServerSocketChannel server) throws IOException {
+      SocketChannel channel = server.accept();
+      if (channel == null) {
+         return;
+      }
+      if (this.sessions >= this.maxSessions) {
+         System.err.println("refused " + channel.getRemoteAddress() +
+               ": " + this.sessions + " sessions");
+         channel.close();
+         return;
+      }
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);//a move is one small packet
+      Session session = new Session(channel, ++this.nextNumber);
+      session.key = channel.register(this.selector, SelectionKey.OP_READ,
+            session);
+      this.sessions++;
+      System.err.println("session " + session.number + ": " +
+            channel.getRemoteAddress());
+   }
+
+   /**
+    * @param session the session whose channel has bytes to read
+    * @param buffer  where the bytes can be read into
+    */
+   private void read(Session session, ByteBuffer buffer) {
+      int read;
+      buffer.clear();
+      try {
+         read = session.channel.read(buffer);
+      } catch (IOException e) {
+         read = -1;
+      }
+      if (read < 0) {
+         session.end();
+         this.update(session);
+      } else if (read > 0) {
+         session.receive(buffer.array(), read);
+      }
+   }
+
+   /**
+    * Closes the channel of a session if it is over and all of its output has
+    *    been written; otherwise, waits for what the session still needs: its
+    *    input (unless it has ended) and room for its output.
+    *
+    * @Precondition: called by the Selector thread
+    * @param session
+    */
+   private void update(Session session) {
+      if (!session.key.isValid()) {
+         return;
+      }
+      boolean output = session.hasOutput();
+      if (session.isDone() && !output) {
+         session.close();
+         session.key.cancel();
+         try {
+            session.channel.close();
+         } catch (IOException e) {
+            //it is closed either way
+         }
+         this.sessions--;
+         System.err.println("session " + session.number + ": closed");
+         return;
+      }
+      int ops = 0;
+      if (!session.isEnded()) {
+         ops |= SelectionKey.OP_READ;
+      }
+      if (output) {
+         ops |= SelectionKey.OP_WRITE;
+      }
+      session.key.interestOps(ops);
+   }
+
+   /**
+    * Asks the Selector thread to look at a session again (see
+    *    update(Session)).
+    *
+    * @param session
+    */
+   private void change(Session session) {
+      synchronized (this.changed) {
+         this.changed.add(session);
+      }
+      this.selector.wakeup();
+   }
+
+   /**
+    * @Precondition: called by the Selector thread
+    */
+   private void applyChanges() {
+      while (true) {
+         Session session;
+         synchronized (this.changed) {
+            session = this.changed.poll();
+         }
+         if (session == null) {
+            return;
+         }
+         this.update(session);
+      }
+   }
+
+   /**
+    * A Session is one game. The Selector thread gives it bytes with
+    *    receive(byte[], int), and a worker turns them into lines for its
+    *    Parser. Only one worker runs a Session at a time.
+    */
+   private class Session implements Runnable {
+
+      //what takeInbox() gives
+      private static final int LINES = 0;
+      private static final int IDLE = 1;
+      private static final int OVER = 2;
+
+      final SocketChannel channel;
+      final int number;
+      SelectionKey key;
+      private final ProtocolReader reader;
+      private final Parser parser;
+
+      //guarded by this: the bytes that have arrived for the next worker
+      private byte[] inbox;
+      private int inboxSize;
+      //when the first of them arrived (System.nanoTime())
+      private long arrived;
+      //true while a worker has been asked to run this Session
+      private boolean scheduled;
+      //true once no more bytes will arrive
+      private boolean ended;
+      //true once every line has been handled and the bot has stopped
+      private boolean done;
+      //true once the channel has been closed
+      private boolean closed;
+      //only used by the worker: when the lines it is handling arrived
+      private long since;
+      //our moves that the channel has not taken yet
+      private ByteBuffer outbox;
+
+      Session(SocketChannel myChannel, int myNumber) {
+         this.channel = myChannel;
+         this.number = myNumber;
+         this.reader = new ProtocolReader();
+         this.parser = new Parser(GameServer.this.options, this.reader,
+               new Output(this), "session " + myNumber + ": ");
+         this.inbox = new byte[1 << 10];
+         this.outbox = ByteBuffer.allocate(1 << 8);
+         this.outbox.flip();//nothing to write
+      }
+
+      /**
+       * @Precondition: called by the Selector thread
+       * @param bytes   the bytes that arrived
+       * @param length  the number of bytes
+       */
+      synchronized void receive(byte[] bytes, int length) {
+         if (this.inboxSize == 0) {
+            this.arrived = System.nanoTime();
+         }
+         if (this.inbox.length - this.inboxSize < length) {
+            this.inbox = Arrays.copyOf(this.inbox,
+                  Math.max(this.inbox.length * 2, this.inboxSize + length));
+         }
+         System.arraycopy(bytes, 0, this.inbox, this.inboxSize, length);
+         this.inboxSize += length;
+         this.schedule();
+      }
+
+      /**
+       * Lets the worker know that there will be no more bytes, so the game
+       *    is over once it has handled the lines it already has.
+       *
+       * @Precondition: called by the Selector thread
+       */
+      synchronized void end() {
+         this.ended = true;
+         this.schedule();
+      }
+
+      synchronized boolean isEnded() {
+         return this.ended;
+      }
+
+      synchronized boolean isDone() {
+         return this.done;
+      }
+
+      /**
+       * @Precondition: called by the Selector thread, which closes the
+       *                   channel
+       */
+      synchronized void close() {
+         this.closed = true;
+      }
+
+      /**
+       * @Precondition: the caller holds the lock of this Session
+       */
+      private void schedule() {
+         if (!this.scheduled) {
+            this.scheduled = true;
+            GameServer.this.workers.execute(this);
+         }
+      }
+
+      /**
+       * Handles every line that has arrived, until no more have. If no more
+       *    will, ends the game.
+       */
+      @Override
+      public void run() {
+         try {
+            int state = this.takeInbox();
+            while (state == Session.LINES) {
+               while (this.reader.nextLine()) {
+                  int waited =
+                        (int) ((System.nanoTime() - this.since) / 1000000);
+                  this.parser.handleLine(waited);
+               }
+               state = this.takeInbox();
+            }
+            if (state == Session.IDLE) {
+               return;
+            }
+         } catch (IOException | RuntimeException e) {
+            System.err.println("session " + this.number + ": " + e);
+            synchronized (this) {
+               this.ended = true;//the rest of the game can not be played
+               this.inboxSize = 0;
+            }
+         }
+         //stays scheduled, so no worker runs it again
+         this.parser.close();
+         synchronized (this) {
+            this.done = true;
+         }
+         GameServer.this.change(this);//to close it once the output is out
+      }
+
+      /**
+       * Hands the bytes that have arrived to the reader.
+       *
+       * @return  LINES if there were any; otherwise, IDLE if more may arrive
+       *             (and the worker has to stop until they do), or OVER if
+       *             no more will
+       */
+      private synchronized int takeInbox() {
+         if (this.inboxSize == 0) {
+            if (this.ended) {
+               return Session.OVER;
+            }
+            this.scheduled = false;
+            return Session.IDLE;
+         }
+         this.reader.append(this.inbox, 0, this.inboxSize);
+         this.inboxSize = 0;
+         this.since = this.arrived;
+         return Session.LINES;
+      }
+
+      synchronized boolean hasOutput() {
+         return this.outbox.hasRemaining();
+      }
+
+      /**
+       * Writes bytes to the channel, or keeps them until the channel can take
+       *    them.
+       *
+       * @param bytes
+       * @param length  the number of bytes
+       */
+      synchronized void send(byte[] bytes, int length) {
+         if (this.closed) {
+            return;//nobody is listening
+         }
+         boolean waiting = this.outbox.hasRemaining();
+         this.outbox.compact();
+         if (this.outbox.remaining() < length) {
+            ByteBuffer bigger = ByteBuffer.allocate(
+                  Math.max(this.outbox.capacity() * 2,
+                  this.outbox.position() + length));
+            this.outbox.flip();
+            bigger.put(this.outbox);
+            this.outbox = bigger;
+         }
+         this.outbox.put(bytes, 0, length);
+         this.outbox.flip();
+         if (!waiting) {
+            this.write();
+            if (this.outbox.hasRemaining()) {
+               GameServer.this.change(this);//wait until it can take the rest
+            }
+         }
+      }
+
+      /**
+       * Writes as much of the output as the channel takes without waiting.
+       */
+      synchronized void write() {
+         try {
+            this.channel.write(this.outbox);
+         } catch (IOException e) {
+            this.outbox.clear();
+            this.outbox.flip();//the game is over, so the moves do not matter
+         }
+      }
+   }
+
+   /**
+    * Output collects what a Parser writes, and sends it to the channel of
+    *    its Session every time the Parser flushes.
+    */
+   private static class Output extends OutputStream {
+
+      private final Session session;
+      private byte[] bytes;
+      private int size;
+
+      Output(Session mySession) {
+         this.session = mySession;
+         this.bytes = new byte[1 << 6];
+      }
+
+      @Override
+      public void write(int b) {
+         if (this.size == this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, this.size * 2);
+         }
+         this.bytes[this.size++] = (byte) b;
+      }
+
+      @Override
+      public void flush() {
+         if (this.size > 0) {
+            this.session.send(this.bytes, this.size);
+            this.size = 0;
+         }
+      }
+   }
+}
@@ -0,0 +1,224 @@
+package bot;
+
+/**
+ * Lines keeps lookup tables for the lines of Board.CONNECT locations in a
+ *    3 by 3 board. The tables are built once and then answer questions about
+ *    a board with a single array access, instead of searching the board for
+ *    lines every time we ask.
+ *
+ * Every table is indexed by masks of locations, numbered row by row:
+ *    0 1 2
+ *    3 4 5
+ *    6 7 8
+ * The same tables can be used for a Microboard (masks of locations that
+ *    belong to a player) and for the macroboard (masks of boards that have
+ *    been won by a player).
+ *
+ * Some tables need to know about both players. These are indexed by the
+ *    base 3 value of the board, where each location is a digit that is
+ *    0 if it is empty, 1 if it belongs to the player, and 2 if it belongs to
+ *    the opposing player. See index(int own, int opp).
+ */
+public final class Lines {
+
+   //number of locations in a board
+   public static final int SIZE = Board.ROWS * Board.COLS;
+   //number of masks of locations in a board
+   public static final int MASKS = 1 << Lines.SIZE;
+   //number of base 3 values of a board
+   public static final int PATTERNS = 19683;//3^9
+
+   //the 8 lines of Board.CONNECT locations in a 3 by 3 board
+   private static final int[] LINES = {
+      0x007, 0x038, 0x1C0,//horizontal
+      0x049, 0x092, 0x124,//vertical
+      0x111, 0x054        //diagonal
+   };
+
+   //lines that go through each location
+   private static final int[][] LINES_THROUGH = new int[Lines.SIZE][];
+   //locations that are part of a complete line in each mask
+   private static final int[] WINNING = new int[Lines.MASKS];
+   //base 3 value of each mask where every location in the mask is a 1
+   private static final int[] TERNARY = new int[Lines.MASKS];
+   /*
+    * 10^(number of a player's locations in an open line)
+    *    An empty line is not worth anything, and neither is a complete line,
+    *    because it has already decided the board.
+    */
+   private static final int[] LINE_VALUES = {0, 10, 100, 0};
+   /*
+    * everything about each pattern, from the point of view of the player
+    *    whose locations are the 1s:
+    *       bits 0-8    the empty locations that would complete a line for the
+    *                      player (threats)
+    *       bits 9-17   the threats of the opposing player
+    *       bits 18-19  the id of the board + 1 (see getStatus(int, int))
+    *       bit 20      set if the board is full
+    *       bits 21-30  the value of the board for the player
+    */
+   private static final int[] PATTERN_INFO = new int[Lines.PATTERNS];
+
+   static {
+      for (int cell = 0; cell < Lines.SIZE; cell++) {
+         int count = 0;
+         for (int line : Lines.LINES) {
+            if ((line & (1 << cell)) != 0) {
+               count++;
+            }
+         }
+         Lines.LINES_THROUGH[cell] = new int[count];
+         count = 0;
+         for (int line : Lines.LINES) {
+            if ((line & (1 << cell)) != 0) {
+               Lines.LINES_THROUGH[cell][count] = line;
+               count++;
+            }
+         }
+      }
+      for (int mask = 0; mask < Lines.MASKS; mask++) {
+         for (int line : Lines.LINES) {
+            if ((mask & line) == line) {
+               Lines.WINNING[mask] |= line;
+            }
+         }
+         int value = 0;
+         for (int cell = Lines.SIZE - 1; cell >= 0; cell--) {
+            value = value * 3 + ((mask >> cell) & 1);
+         }
+         Lines.TERNARY[mask] = value;
+      }
+      for (int own = 0; own < Lines.MASKS; own++) {
+         for (int opp = 0; opp < Lines.MASKS; opp++) {
+            if ((own & opp) == 0) {
+               Lines.PATTERN_INFO[Lines.index(own, opp)] =
+                     Lines.calculateInfo(own, opp);
+            }
+         }
+      }
+   }
+
+   private Lines() {
+   }
+
+   /**
+    * @Precondition: own and opp do not share any locations
+    * @param own  mask of locations that belong to a player
+    * @param opp  mask of locations that belong to the opposing player
+    * @return  the base 3 value of the board (between 0 and PATTERNS - 1)
+    */
+   public static int index(int own, int opp) {
+      return Lines.TERNARY[own] + 2 * Lines.TERNARY[opp];
+   }
+
+   /**
+    * @param mask mask of locations that belong to a player
+    * @return  true if the locations contain a line of Board.CONNECT;
+    *          otherwise, false
+    */
+   public static boolean isWon(int mask) {
+      return Lines.WINNING[mask] != 0;
+   }
+
+   /**
+    * @param mask mask of locations that belong to a player
+    * @param cell a location in the board
+    * @return  true if the given location is part of a line of Board.CONNECT
+    *             locations in the mask; otherwise, false
+    */
+   public static boolean isWinningLocation(int mask, int cell) {
+      return (Lines.WINNING[mask] & (1 << cell)) != 0;
+   }
+
+   /**
+    * @Precondition: own and opp do not share any locations
+    * @param own  mask of locations that belong to a player
+    * @param opp  mask of locations that belong to the opposing player
+    * @return  the mask of empty locations that would complete a line for the
+    *             player
+    */
+   public static int getThreats(int own, int opp) {
+      return Lines.PATTERN_INFO[Lines.index(own, opp)] & 0x1FF;
+   }
+
+   /**
+    * @Precondition: own and opp do not share any locations
+    * @param own  mask of locations that belong to a player
+    * @param opp  mask of locations that belong to the opposing player
+    * @return  the id of the board, as Microboard keeps it:
+    *             1 if the player has won it, 2 if the opposing player has,
+    *             0 if it is full and neither player has won it,
+    *             and -1 if it can still be played
+    */
+   public static int getStatus(int own, int opp) {
+      return ((Lines.PATTERN_INFO[Lines.index(own, opp)] >> 18) & 0x3) - 1;
+   }
+
+   /**
+    * @Precondition: own and opp do not share any locations
+    * @param own  mask of locations that belong to a player
+    * @param opp  mask of locations that belong to the opposing player
+    * @return  true if there are no empty locations; otherwise, false
+    */
+   public static boolean isFull(int own, int opp) {
+      return (Lines.PATTERN_INFO[Lines.index(own, opp)] & (1 << 20)) != 0;
+   }
+
+   /**
+    * Every line that is still open for the player (none of the opposing
+    *    player's locations are in it) is worth 10^(number of the player's
+    *    locations in it). Empty and complete lines are not worth anything.
+    *
+    * @Precondition: own and opp do not share any locations
+    * @param own  mask of locations that belong to a player
+    * @param opp  mask of locations that belong to the opposing player
+    * @return  the value of the open lines of the player
+    */
+   public static int getValue(int own, int opp) {
+      return Lines.PATTERN_INFO[Lines.index(own, opp)] >>> 21;
+   }
+
+   /**
+    * @param cell a location in the board
+    * @return  the masks of the lines that go through the given location
+    *          The array is shared, so it should not be changed.
+    */
+   public static int[] getLinesThrough(int cell) {
+      return Lines.LINES_THROUGH[cell];
+   }
+
+   /**
+    * @param own  mask of locations that belong to a player
+    * @param opp  mask of locations that belong to the opposing player
+    * @return  the entry of PATTERN_INFO for the given board
+    */
+   private static int calculateInfo(int own, int opp) {
+      int ownThreats = 0;
+      int oppThreats = 0;
+      int value = 0;
+      for (int line : Lines.LINES) {
+         if ((line & opp) == 0) {
+            int numInLine = Integer.bitCount(line & own);
+            if (numInLine == Board.CONNECT - 1) {
+               ownThreats |= line & ~own;
+            }
+            value += Lines.LINE_VALUES[numInLine];
+         }
+         if ((line & own) == 0 &&
+             Integer.bitCount(line & opp) == Board.CONNECT - 1) {
+            oppThreats |= line & ~opp;
+         }
+      }
+      int status = -1;
+      if (Lines.isWon(own)) {
+         status = 1;
+      } else if (Lines.isWon(opp)) {
+         status = 2;
+      } else if ((own | opp) == Lines.MASKS - 1) {
+         status = 0;
+      }
+      int full = (own | opp) == Lines.MASKS - 1 ? 1 : 0;
+      return ownThreats | (oppThreats << 9) | ((status + 1) << 18) |
+             (full << 20) | (value << 21);
+   }
+}
@@ -144,14 +144,16 @@ public class Macroboard extends Board<Microboard> {
     * @Postcondition:   changes the id of the given location to the given id
     *                   changes all ids of affected boards in macroboard
     * @param move a Move that we are attempting to make on this macroboard
-    * @return  String the ids of the boards before they were changed
+    * @return  int the ids of the boards before they were changed
     *          We do this because Ultimate Tic Tac Toe is a game where a move
     *             changes the state of the board (the ids of the microboards)
     *          There is no way to return the macroboard to its prior state
     *             without knowing what the prior state is.
+    *          For more information on how the ids are kept in the int,
+    *             please refer to packBoards()
     */
-   public String makeMove(Move move) {
-      String boards = this.getBoards();
+   public int makeMove(Move move) {
+      int boards = this.packBoards();
       Microboard microboard =
             (Microboard)this.board[move.boardRow][move.boardCol];
       if (microboard.getID() != -1) {
@@ -165,8 +167,9 @@ public class Macroboard extends Board<Microboard> {
          microboard.setID(0);
       }
       //update id of rest of macroboard
+      //the next board may still be -1 if every board could be played
       Microboard nextMicroboard = (Microboard)this.board[move.row][move.col];
-      if (nextMicroboard.getID() == 0 && !nextMicroboard.isFull()) {
+      if (nextMicroboard.getID() <= 0 && !nextMicroboard.isFull()) {
          this.changeIDs(-1, 0);
          nextMicroboard.setID(-1);
       } else {
@@ -175,18 +178,74 @@ public class Macroboard extends Board<Microboard> {
       return boards;
    }
 
+   /**
+    * @return  the id of the player that has won three boards in a line (which
+    *             ends the game); otherwise, 0
+    */
+   public int getWinner() {
+      int[] won = new int[3];
+      for (int row = 0; row < Board.ROWS; row++) {
+         for (int col = 0; col < Board.COLS; col++) {
+            int id = this.getID(row, col);
+            if (id > 0) {
+               won[id] |= 1 << (row * Board.COLS + col);
+            }
+         }
+      }
+      if (Lines.isWon(won[1])) {
+         return 1;
+      } else if (Lines.isWon(won[2])) {
+         return 2;
+      }
+      return 0;
+   }
+
    /**
     * Unmakes a move: to be used in conjunction with makeMove(move)
-    *    The String that makeMove(move) returns should be the String passed in
+    *    The int that makeMove(move) returns should be the int passed in
     *    here. That is the state of the macroboard before we changed it.
     * @param move
     * @param boards
     */
-   public void unmakeMove(Move move, String boards) {
+   public void unmakeMove(Move move, int boards) {
       Microboard microboard =
             ((Microboard)this.board[move.boardRow][move.boardCol]);
       microboard.update(move.row, move.col, 0);
-      this.updateBoards(boards);
+      this.unpackBoards(boards);
+   }
+   
+   /**
+    * Every id (-1, 0, 1, or 2) is kept in 2 bits as id + 1.
+    *    The boards go row by row, starting at the lowest bits.
+    * 
+    * @return  the ids of all the boards packed in an int
+    */
+   private int packBoards() {
+      int boards = 0;
+      int shift = 0;
+      for (int row = 0; row < Board.ROWS; row++) {
+         for (int col = 0; col < Board.COLS; col++) {
+            int id = ((Microboard)this.board[row][col]).getID();
+            boards |= (id + 1) << shift;
+            shift += 2;
+         }
+      }
+      return boards;
+   }
+   
+   /**
+    * Sets the ids of all the boards to the ids packed in the given int.
+    * @param boards  ids that were packed by packBoards()
+    */
+   private void unpackBoards(int boards) {
+      int shift = 0;
+      for (int row = 0; row < Board.ROWS; row++) {
+         for (int col = 0; col < Board.COLS; col++) {
+            int id = ((boards >> shift) & 0x3) - 1;
+            ((Microboard)this.board[row][col]).setID(id);
+            shift += 2;
+         }
+      }
    }
    
    @Override
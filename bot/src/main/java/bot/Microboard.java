@@ -80,7 +80,7 @@ public class Microboard extends Board<Integer> {
     *          false if there is at least one available location
     */
    public boolean isFull() {
-      return this.getAvailableMoves(0, 0, 0).isEmpty();
+      return Lines.isFull(this.getMask(1), this.getMask(2));
    }
    
    /**
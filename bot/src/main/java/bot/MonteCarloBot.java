@@ -0,0 +1,331 @@
+package bot;
+
+/**
+ * This is an artificial intelligence that plays Ultimate Tic Tac Toe with
+ *    Monte Carlo Tree Search. Instead of valuing a board with a formula, it
+ *    plays many games to the end with random moves (playouts) and keeps a
+ *    tree of how often every move led to a win.
+ *
+ * Every iteration of the search:
+ *    1. goes down the tree, picking the child with the best UCT value
+ *          (how often it won plus how little it has been tried)
+ *    2. adds the children of the node it ends on to the tree
+ *    3. plays one of those children to the end with random moves, except
+ *          that a move that wins the game is always played
+ *    4. adds the result to every node on the way back up
+ *
+ * The nodes of the tree are kept in arrays that are made once (a pool), so
+ *    that the search does not make any objects. A node is an index into the
+ *    arrays, and the children of a node are next to each other.
+ */
+public class MonteCarloBot extends Engine {
+
+   //how much we try moves that have not been tried often (sqrt(2))
+   private static final double EXPLORATION = 1.41;
+   //how many iterations we run between checks of the clock
+   private static final int CHECK_INTERVAL = 64;
+   private static final int NO_CHILDREN = -1;
+
+   /*
+    * The pool of nodes. For the node at index n:
+    *    move[n]        the index of the move that leads to the node
+    *    firstChild[n]  the index of the first child, or NO_CHILDREN
+    *    childCount[n]  the number of children
+    *    visits[n]      the number of playouts that went through the node
+    *    score[n]       the result of those playouts for the player that made
+    *                      the move: 2 for every win and 1 for every draw
+    */
+   private final int[] move;
+   private final int[] firstChild;
+   private final int[] childCount;
+   private final int[] visits;
+   private final int[] score;
+   private int size;
+
+   //the nodes, moves, and undo ints of the current iteration
+   private final int[] path;
+   private final int[] pathMoves;
+   private final int[] pathBoards;
+   private final int[] buffer;
+
+   private long random;
+
+   public MonteCarloBot(int myId, Clock myClock, Options options) {
+      super(myId, myClock);
+      int capacity = options.getTreeSize();
+      this.move = new int[capacity];
+      this.firstChild = new int[capacity];
+      this.childCount = new int[capacity];
+      this.visits = new int[capacity];
+      this.score = new int[capacity];
+      this.path = new int[82];
+      this.pathMoves = new int[82];
+      this.pathBoards = new int[82];
+      this.buffer = new int[81];
+      this.random = System.nanoTime() | 1;
+   }
+
+   @Override
+   protected Move search(int id, long deadline) {
+      int root = this.newRoot();
+      if (this.expand(root) < 1) {
+         throw new IllegalStateException();
+      }
+      if (this.childCount[root] == 1) {//nothing to think about
+         return Bitboard.toMove(this.move[this.firstChild[root]], id);
+      }
+      do {
+         for (int i = 0; i < MonteCarloBot.CHECK_INTERVAL; i++) {
+            this.iterate(id);
+         }
+      } while (System.nanoTime() < deadline);
+      return this.getBestMove(root, id);
+   }
+
+   /**
+    * Searches for the given number of playouts instead of a length of time.
+    *
+    * @Precondition: there is at least one available move; otherwise,
+    *                   throw an IllegalStateException
+    * @param id      the id of the player that is about to move
+    * @param count   the number of playouts
+    * @return  the best move for the player
+    */
+   public Move pickBestMove(int id, long count) {
+      int root = this.newRoot();
+      if (this.expand(root) < 1) {
+         throw new IllegalStateException();
+      }
+      this.stats.clear();
+      while (this.stats.nodes < count) {
+         this.iterate(id);
+      }
+      return this.getBestMove(root, id);
+   }
+
+   /**
+    * Empties the pool and adds a root for the current state.
+    * @return  the root
+    */
+   private int newRoot() {
+      this.size = 0;
+      return this.newNode(TranspositionTable.NO_MOVE);
+   }
+
+   /**
+    * @param myMove  the index of the move that leads to the node
+    * @return  a new node from the pool
+    */
+   private int newNode(int myMove) {
+      int node = this.size;
+      this.move[node] = myMove;
+      this.firstChild[node] = MonteCarloBot.NO_CHILDREN;
+      this.childCount[node] = 0;
+      this.visits[node] = 0;
+      this.score[node] = 0;
+      this.size++;
+      return node;
+   }
+
+   /**
+    * Adds a child to the given node for every available move, unless the pool
+    *    does not have room for them.
+    *
+    * @param node
+    * @return  the number of children of the node
+    */
+   private int expand(int node) {
+      int count = this.board.getAvailableMoves(this.buffer);
+      if (this.size + count <= this.move.length) {
+         this.firstChild[node] = this.size;
+         this.childCount[node] = count;
+         for (int i = 0; i < count; i++) {
+            this.newNode(this.buffer[i]);
+         }
+      }
+      return this.childCount[node];
+   }
+
+   /**
+    * Runs one iteration of the search from the current state.
+    * @param id   the id of the player that is about to move at the root
+    */
+   private void iterate(int id) {
+      int node = 0;
+      int length = 0;
+      int player = id;
+      int winner = 0;
+      this.path[length] = node;
+      //selection
+      while (this.childCount[node] > 0) {
+         node = this.select(node);
+         winner = this.play(length, this.move[node], player);
+         length++;
+         this.path[length] = node;
+         player = Board.calculateOppID(player);
+         if (winner != 0) {
+            break;
+         }
+      }
+      //expansion
+      if (winner == 0 && this.visits[node] > 0 && this.expand(node) > 0) {
+         node = this.firstChild[node];
+         winner = this.play(length, this.move[node], player);
+         length++;
+         this.path[length] = node;
+         player = Board.calculateOppID(player);
+      }
+      //simulation
+      if (winner == 0) {
+         winner = this.playout(length, player);
+      }
+      for (int i = length - 1; i >= 0; i--) {
+         this.board.unmakeMove(this.pathMoves[i],
+               this.getPlayer(id, i), this.pathBoards[i]);
+      }
+      //backpropagation
+      for (int i = 0; i <= length; i++) {
+         int visited = this.path[i];
+         this.visits[visited]++;
+         //the node at depth i was reached by a move of the player at i - 1
+         if (winner == 0) {
+            this.score[visited] += 1;
+         } else if (i > 0 && winner == this.getPlayer(id, i - 1)) {
+            this.score[visited] += 2;
+         }
+      }
+      //the nodes of the statistics are playouts
+      this.stats.nodes++;
+      this.stats.depth = Math.max(this.stats.depth, length);
+   }
+
+   /**
+    * Makes the given move and remembers it so the iteration can undo it.
+    *
+    * @param length  the number of moves made in this iteration
+    * @param index   the index of the move
+    * @param player  the id of the player that makes the move
+    * @return  the id of the player that won the game; otherwise, 0
+    */
+   private int play(int length, int index, int player) {
+      this.pathMoves[length] = index;
+      this.pathBoards[length] = this.board.makeMove(index, player);
+      return this.board.getWinner();
+   }
+
+   /**
+    * @return  the id of the player that makes the move at the given depth
+    */
+   private int getPlayer(int id, int depth) {
+      return depth % 2 == 0 ? id : Board.calculateOppID(id);
+   }
+
+   /**
+    * @Precondition: the node has children
+    * @param node
+    * @return  the child of the node with the best UCT value
+    */
+   private int select(int node) {
+      int first = this.firstChild[node];
+      int last = first + this.childCount[node];
+      double logVisits = Math.log(Math.max(this.visits[node], 1));
+      int best = first;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int child = first; child < last; child++) {
+         if (this.visits[child] == 0) {//try every move once
+            return child;
+         }
+         double value = this.score[child] / (2.0 * this.visits[child]) +
+                        MonteCarloBot.EXPLORATION *
+                        Math.sqrt(logVisits / this.visits[child]);
+         if (value > bestValue) {
+            bestValue = value;
+            best = child;
+         }
+      }
+      return best;
+   }
+
+   /**
+    * Plays random moves until the game is over, then undoes them.
+    *    A move that wins the game is always played.
+    *
+    * @param start   the number of moves already made in this iteration
+    * @param id      the id of the player that is about to move
+    * @return  the id of the player that won the game, or 0 for a draw
+    */
+   private int playout(int start, int id) {
+      int length = start;
+      int player = id;
+      int winner = 0;
+      while (winner == 0) {
+         int count = this.board.getAvailableMoves(this.buffer);
+         if (count == 0) {
+            break;
+         }
+         int index = this.findWinningMove(player, count);
+         if (index < 0) {
+            index = this.buffer[this.nextRandom(count)];
+         }
+         winner = this.play(length, index, player);
+         player = Board.calculateOppID(player);
+         length++;
+      }
+      for (int i = length - 1; i >= start; i--) {
+         player = Board.calculateOppID(player);
+         this.board.unmakeMove(this.pathMoves[i], player, this.pathBoards[i]);
+      }
+      return winner;
+   }
+
+   /**
+    * @param player  the id of the player that is about to move
+    * @param count   the number of available moves in buffer
+    * @return  the index of an available move that wins the game; otherwise, -1
+    */
+   private int findWinningMove(int player, int count) {
+      int blocked = this.board.getDecided() & ~this.board.getWon(player);
+      int threats = Lines.getThreats(this.board.getWon(player), blocked);
+      if ((threats & this.board.getActive()) == 0) {//no board wins the game
+         return -1;
+      }
+      for (int i = 0; i < count; i++) {
+         if (this.board.isWinningMove(this.buffer[i], player)) {
+            return this.buffer[i];
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * @param bound
+    * @return  a random int from 0 (inclusive) to bound (exclusive)
+    */
+   private int nextRandom(int bound) {
+      //xorshift, which is much faster than java.util.Random
+      this.random ^= this.random << 13;
+      this.random ^= this.random >>> 7;
+      this.random ^= this.random << 17;
+      return (int)((this.random >>> 33) % bound);
+   }
+
+   /**
+    * @param root
+    * @param id   the id of the player that is about to move
+    * @return  the move of the child of the root that was visited most
+    */
+   private Move getBestMove(int root, int id) {
+      int first = this.firstChild[root];
+      int best = first;
+      for (int child = first; child < first + this.childCount[root]; child++) {
+         if (this.visits[child] > this.visits[best]) {
+            best = child;
+         }
+      }
+      Move bestMove = Bitboard.toMove(this.move[best], id);
+      if (this.visits[best] > 0) {
+         bestMove.value = 100 * this.score[best] / (2 * this.visits[best]);
+      }
+      return bestMove;
+   }
+}
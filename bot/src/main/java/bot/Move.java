@@ -37,6 +37,13 @@ public class Move implements Comparable<Move> {
       return false;//TODO
    }*/
    
+   /**
+    * @return  the value that the search that picked this move gave it
+    */
+   public int getValue() {
+      return this.value;
+   }
+
    /**
     * Returns a String representation of this object:
     *    e.g.  "Move 02 is played by P1 in board 11 is valued at 0"
@@ -0,0 +1,122 @@
+package bot;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An OpeningBook knows the best moves of the first states of a game, which
+ *    were searched deeply ahead of time by BookBuilder. That way we do not
+ *    have to search the same openings from scratch in every game.
+ *
+ * The book is a file that is memory-mapped instead of read, so it does not
+ *    take any room on the heap and looking up a state only touches the pages
+ *    of the file that it needs. The file is:
+ *       an int    MAGIC
+ *       an int    the number of entries
+ *       entries   sorted by key, each one:
+ *          a long   the key of a state (see Symmetry.getKey(Bitboard))
+ *          an int   the index of the best move (see Bitboard.toIndex(Move))
+ *          an int   the value of the best move
+ *
+ * A state that is a rotation or a reflection of another state has the same
+ *    best move (rotated or reflected), so the book only keeps one of them.
+ *    The key of a state is its canonical key, and the best move is kept for
+ *    the canonical state (see Symmetry).
+ */
+public class OpeningBook {
+
+   //the first int of every book ("UTTB")
+   public static final int MAGIC = 0x55545442;
+   public static final int HEADER_SIZE = 8;
+   public static final int ENTRY_SIZE = 16;
+
+   private final MappedByteBuffer buffer;
+   private final int size;
+
+   /**
+    * @Precondition: the file at the given path is a book; otherwise,
+    *                   throws an IOException
+    * @param path
+    */
+   public OpeningBook(String path) throws IOException {
+      FileChannel channel = FileChannel.open(Paths.get(path),
+            StandardOpenOption.READ);
+      try {
+         this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+               channel.size());
+      } finally {
+         channel.close();//the mapping stays valid after the channel is closed
+      }
+      if (this.buffer.capacity() < OpeningBook.HEADER_SIZE ||
+          this.buffer.getInt(0) != OpeningBook.MAGIC) {
+         throw new IOException("not a book: " + path);
+      }
+      this.size = this.buffer.getInt(4);
+      if (this.buffer.capacity() !=
+          OpeningBook.HEADER_SIZE + (long)this.size * OpeningBook.ENTRY_SIZE) {
+         throw new IOException("truncated book: " + path);
+      }
+   }
+
+   /**
+    * @param board   the current state
+    * @param id      the id of the player that is about to move
+    * @return  the best move in the given state according to the book;
+    *             null if the state is not in the book
+    */
+   public Move getMove(Bitboard board, int id) {
+      int symmetry = Symmetry.getCanonical(board);
+      int entry = this.find(board.getHash(symmetry));
+      if (entry < 0) {
+         return null;
+      }
+      int offset = OpeningBook.HEADER_SIZE + entry * OpeningBook.ENTRY_SIZE;
+      //move the best move back from the canonical state to the given state
+      int index = Symmetry.fromCanonical(this.buffer.getInt(offset + 8),
+            symmetry);
+      if (index < 0 || index >= 81) {
+         return null;
+      }
+      int boardIndex = index / 9;
+      int cell = index % 9;
+      if ((board.getActive() & (1 << boardIndex)) == 0 ||
+          (board.getEmpty(boardIndex) & (1 << cell)) == 0) {
+         return null;//another state with the same key
+      }
+      Move move = Bitboard.toMove(boardIndex * 9 + cell, id);
+      move.value = this.buffer.getInt(offset + 12);
+      return move;
+   }
+
+   /**
+    * @return  the number of states in the book
+    */
+   public int size() {
+      return this.size;
+   }
+
+   /**
+    * @param key
+    * @return  the number of the entry with the given key; otherwise, -1
+    */
+   private int find(long key) {
+      int low = 0;
+      int high = this.size - 1;
+      while (low <= high) {
+         int middle = (low + high) >>> 1;
+         long middleKey = this.buffer.getLong(OpeningBook.HEADER_SIZE +
+               middle * OpeningBook.ENTRY_SIZE);
+         if (middleKey < key) {
+            low = middle + 1;
+         } else if (middleKey > key) {
+            high = middle - 1;
+         } else {
+            return middle;
+         }
+      }
+      return -1;
+   }
+}
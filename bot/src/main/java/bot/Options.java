@@ -0,0 +1,271 @@
+package bot;
+
+/**
+ * Options keeps the settings of the bot that do not come from the engine.
+ *    They are given on the command line as key=value pairs.
+ *    e.g. java bot.Parser hash=64
+ *
+ * Known keys:
+ *    engine   the kind of Engine to play with: negamax or mcts
+ *    hash     the size of the transposition table in megabytes
+ *    nodes    the most nodes the tree of MonteCarloBot can have
+ *    threads  the number of threads Bot searches with
+ *    ponder   true if Bot should think on the opposing player's time
+ *    book     the path of an OpeningBook for Bot to play from; none if empty
+ *    solver   the most empty locations left (in boards that are not decided)
+ *                at which Bot solves the game with an EndgameSolver; 0 never
+ *    pvs      true if Bot should search with principal variation search;
+ *                false for plain alpha-beta
+ *    aspiration
+ *             how far (in value) from the value of the last iteration Bot
+ *                expects the next one to be; 0 searches every iteration
+ *                with a full window
+ *    lmr      the number of moves Bot searches at a state before it searches
+ *                the rest of the quiet moves less deeply; 0 never
+ *    lmr_depth
+ *             the least depth at which moves are searched less deeply
+ *    lmr_reduction
+ *             how many moves less deeply they are searched
+ *    extensions
+ *             true if Bot searches one move deeper after a forced move or a
+ *                move that threatens to win the game
+ *    prune_depth
+ *             the most depth at which Bot skips moves that let the opposing
+ *                player choose any board when it is far behind; 0 never
+ *    prune_margin
+ *             how far behind (in value) Bot has to be to skip them
+ *    jfr      true if the statistics of every search should also be recorded
+ *                as SearchEvents for Java Flight Recorder; needs Java 11
+ */
+public class Options {
+
+   private String engine;
+   private int hashSize;
+   private int treeSize;
+   private int threads;
+   private boolean pondering;
+   private String book;
+   private int solverLimit;
+   private boolean recording;
+   private boolean pvs;
+   private int aspiration;
+   private int lmrMoves;
+   private int lmrDepth;
+   private int lmrReduction;
+   private boolean extending;
+   private int pruneDepth;
+   private int pruneMargin;
+
+   public Options() {
+      this.engine = "negamax";
+      this.hashSize = 64;
+      this.treeSize = 1 << 20;
+      this.threads = 1;
+      this.pondering = false;
+      this.book = "";
+      this.solverLimit = 24;
+      this.recording = false;
+      this.pvs = true;
+      this.aspiration = 100;
+      this.lmrMoves = 3;
+      this.lmrDepth = 3;
+      this.lmrReduction = 1;
+      this.extending = true;
+      this.pruneDepth = 2;
+      this.pruneMargin = 500;
+   }
+
+   /**
+    * @Precondition: every argument is a known key=value pair; otherwise,
+    *                   throws an IllegalArgumentException
+    * @param args the arguments given on the command line
+    * @return  Options with the given settings
+    */
+   public static Options parse(String[] args) {
+      Options options = new Options();
+      for (String arg : args) {
+         int split = arg.indexOf('=');
+         if (split < 0) {
+            throw new IllegalArgumentException(arg);
+         }
+         options.set(arg.substring(0, split), arg.substring(split + 1));
+      }
+      return options;
+   }
+
+   /**
+    * @Precondition: key is a known key and value is a valid value for it;
+    *                   otherwise, throws an IllegalArgumentException
+    * @param key
+    * @param value
+    */
+   public void set(String key, String value) {
+      if (key.equals("engine")) {
+         if (!value.equals("negamax") && !value.equals("mcts")) {
+            throw new IllegalArgumentException(key + "=" + value);
+         }
+         this.engine = value;
+      } else if (key.equals("hash")) {
+         this.hashSize = Options.parsePositive(key, value);
+      } else if (key.equals("nodes")) {
+         this.treeSize = Options.parsePositive(key, value);
+      } else if (key.equals("threads")) {
+         this.threads = Options.parsePositive(key, value);
+      } else if (key.equals("ponder")) {
+         this.pondering = Options.parseBoolean(key, value);
+      } else if (key.equals("book")) {
+         this.book = value;
+      } else if (key.equals("solver")) {
+         this.solverLimit = Options.parseNonNegative(key, value);
+      } else if (key.equals("pvs")) {
+         this.pvs = Options.parseBoolean(key, value);
+      } else if (key.equals("aspiration")) {
+         this.aspiration = Options.parseNonNegative(key, value);
+      } else if (key.equals("lmr")) {
+         this.lmrMoves = Options.parseNonNegative(key, value);
+      } else if (key.equals("lmr_depth")) {
+         this.lmrDepth = Options.parsePositive(key, value);
+      } else if (key.equals("lmr_reduction")) {
+         this.lmrReduction = Options.parsePositive(key, value);
+      } else if (key.equals("extensions")) {
+         this.extending = Options.parseBoolean(key, value);
+      } else if (key.equals("prune_depth")) {
+         this.pruneDepth = Options.parseNonNegative(key, value);
+      } else if (key.equals("prune_margin")) {
+         this.pruneMargin = Options.parseNonNegative(key, value);
+      } else if (key.equals("jfr")) {
+         this.recording = Options.parseBoolean(key, value);
+      } else {
+         throw new IllegalArgumentException(key);
+      }
+   }
+
+   public String getEngine() {
+      return this.engine;
+   }
+
+   public int getTreeSize() {
+      return this.treeSize;
+   }
+
+   public int getThreads() {
+      return this.threads;
+   }
+
+   public boolean isPondering() {
+      return this.pondering;
+   }
+
+   /**
+    * @return  the path of the opening book; an empty String if there is none
+    */
+   public String getBook() {
+      return this.book;
+   }
+
+   public int getSolverLimit() {
+      return this.solverLimit;
+   }
+
+   /**
+    * @return  true if searches should be recorded for Java Flight Recorder
+    */
+   public boolean isRecording() {
+      return this.recording;
+   }
+
+   public boolean isPVS() {
+      return this.pvs;
+   }
+
+   /**
+    * @return  the half width of the aspiration window; 0 if there is none
+    */
+   public int getAspiration() {
+      return this.aspiration;
+   }
+
+   /**
+    * @return  the number of moves searched before the rest are searched
+    *             less deeply; 0 if they never are
+    */
+   public int getLMRMoves() {
+      return this.lmrMoves;
+   }
+
+   public int getLMRDepth() {
+      return this.lmrDepth;
+   }
+
+   public int getLMRReduction() {
+      return this.lmrReduction;
+   }
+
+   public boolean isExtending() {
+      return this.extending;
+   }
+
+   /**
+    * @return  the most depth at which hopeless moves that let the opposing
+    *             player choose any board are skipped; 0 if they never are
+    */
+   public int getPruneDepth() {
+      return this.pruneDepth;
+   }
+
+   public int getPruneMargin() {
+      return this.pruneMargin;
+   }
+
+   public int getHashSize() {
+      return this.hashSize;
+   }
+
+   /**
+    * @Precondition: value is a whole number of at least 1; otherwise,
+    *                   throws an IllegalArgumentException
+    */
+   static int parsePositive(String key, String value) {
+      return Options.parseInt(key, value, 1);
+   }
+
+   /**
+    * @Precondition: value is a whole number of at least 0; otherwise,
+    *                   throws an IllegalArgumentException
+    */
+   static int parseNonNegative(String key, String value) {
+      return Options.parseInt(key, value, 0);
+   }
+
+   /**
+    * @Precondition: value is a whole number of at least min; otherwise,
+    *                   throws an IllegalArgumentException
+    * @param key
+    * @param value
+    * @param min  the least value the key can have
+    * @return  the number
+    */
+   private static int parseInt(String key, String value, int min) {
+      int result;
+      try {
+         result = Integer.parseInt(value);
+      } catch (NumberFormatException e) {
+         throw new IllegalArgumentException(key + "=" + value);
+      }
+      if (result < min) {
+         throw new IllegalArgumentException(key + "=" + value);
+      }
+      return result;
+   }
+
+   /**
+    * @Precondition: value is true or false; otherwise, throws an
+    *                   IllegalArgumentException
+    */
+   static boolean parseBoolean(String key, String value) {
+      if (!value.equals("true") && !value.equals("false")) {
+         throw new IllegalArgumentException(key + "=" + value);
+      }
+      return value.equals("true");
+   }
+}
@@ -0,0 +1,217 @@
+// Copyright 2015 theaigames.com (developers@theaigames.com)
+
+//    Licensed under the Apache License, Version 2.0 (the "License");
+//    you may not use this file except in compliance with the License.
+//    You may obtain a copy of the License at
+
+//        http://www.apache.org/licenses/LICENSE-2.0
+
+//    Unless required by applicable law or agreed to in writing, software
+//    distributed under the License is distributed on an "AS IS" BASIS,
+//    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//    See the License for the specific language governing permissions and
+//    limitations under the License.
+//  
+//    For the full copyright and license information, please view the LICENSE
+//    file that was distributed with this source code.
+
+package bot;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * MyBot class
+ * 
+ * Main class that will keep reading output from the engine.
+ * Will either update the bot state or get actions.
+ * 
+ * This code was adapted from the Java Starter Pack given for use in
+ *    Connect Four.
+ * 
+ * The lines are read with a ProtocolReader, so that the field and the
+ *    macroboard go from the bytes of the input straight into the board, and
+ *    our moves are written to a buffered stream that is flushed once per
+ *    move.
+ * 
+ * GameServer runs many Parsers at once, one per game, and hands each one
+ *    its lines with handleLine(int) instead of run().
+ * 
+ * @author Jim van Eeden <jim@starapple.nl>, Joost de Meij <joost@starapple.nl>
+ */
+public class Parser {
+
+   private static final byte[] PLACE_MOVE = Parser.toBytes("place_move ");
+   private static final byte[] UNKNOWN_COMMAND =
+         Parser.toBytes("unknown command\n");
+
+   private ProtocolReader reader;
+   private OutputStream out;
+   private Engine bot;
+   private Clock clock;
+   private Options options;
+   //what the statistics of every move start with, so games can be told apart
+   private final String name;
+   //the ids of the last field and macroboard that were read
+   private final int[] field;
+   private final int[] macroboard;
+
+   public Parser(Options myOptions) {
+      this(myOptions, System.in,
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+   }
+
+   /**
+    * @param myOptions  the settings of the bot
+    * @param in         where the engine's lines come from
+    * @param myOut      where our moves go; it is flushed after every move
+    */
+   public Parser(Options myOptions, InputStream in, OutputStream myOut) {
+      this(myOptions, new ProtocolReader(in), myOut, "");
+   }
+
+   /**
+    * @param myOptions  the settings of the bot
+    * @param myReader   where the engine's lines come from
+    * @param myOut      where our moves go; it is flushed after every move
+    * @param myName     what the statistics of every move start with
+    */
+   Parser(Options myOptions, ProtocolReader myReader, OutputStream myOut,
+         String myName) {
+      this.reader = myReader;
+      this.out = myOut;
+      this.clock = new Clock();
+      this.options = myOptions;
+      this.name = myName;
+      this.field = new int[Board.ROWS * Board.COLS * Board.ROWS * Board.COLS];
+      this.macroboard = new int[Board.ROWS * Board.COLS];
+   }
+   
+   /**
+    * Settings can arrive in any order, so the time settings are kept in a
+    *    Clock that is given to the Bot once we know our id.
+    * 
+    * @Precondition: the line is a settings line
+    */
+   private void readSettings() {
+      if (this.reader.is(1, "your_botid")) {
+         int id = this.reader.getInt(2);
+         this.bot = Engine.create(id, this.clock, this.options);
+      } else if (this.reader.is(1, "timebank")) {
+         this.clock.setTimebank(this.reader.getInt(2));
+      } else if (this.reader.is(1, "time_per_move")) {
+         this.clock.setTimePerMove(this.reader.getInt(2));
+      }
+   }
+   
+   /**
+    * @Precondition: the given token has exactly as many ids as there is room
+    *                   for; otherwise, throws an IllegalArgumentException
+    * @param token   the index of the token with the ids
+    * @param ids     where the ids are put
+    */
+   private void readIDs(int token, int[] ids) {
+      if (this.reader.getInts(token, ids) != ids.length) {
+         throw new IllegalArgumentException("expected " + ids.length +
+               " ids: " + this.reader.getString(token));
+      }
+   }
+   
+   public void run() {
+      try {
+         this.read();
+      } catch (IOException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+   
+   private void read() throws IOException {
+      while (this.reader.nextLine()) {
+         this.handleLine(0);
+      }
+   }
+   
+   /**
+    * Does what the current line of the reader asks.
+    * 
+    * @param waited  the time (ms) since the line arrived; it is taken off the
+    *                   time we have left if the line asks for a move
+    */
+   void handleLine(int waited) throws IOException {
+      if (this.reader.getTokenCount() == 0) {
+         return;
+      }
+
+      if (this.reader.is(0, "settings")) {
+         this.readSettings();
+      } else if (this.reader.is(0, "update")) { /* new field data */
+         this.bot.stopPondering();
+         if (this.reader.is(2, "field")) {
+            this.readIDs(3, this.field);
+            this.bot.setField(this.field);
+         } else if (this.reader.is(2, "macroboard")) {
+            this.readIDs(3, this.macroboard);
+            this.bot.setMacroboard(this.macroboard);
+         }
+      } else if (this.reader.is(0, "action")) {
+         if (this.reader.is(1, "move")) { /* move requested */
+            this.bot.stopPondering();
+            int timeLeft = this.clock.getTimebank();
+            if (this.reader.getTokenCount() > 2) {
+               timeLeft = this.reader.getInt(2);
+            }
+            timeLeft = Math.max(timeLeft - waited, 0);
+            String move = this.bot.pickBestMove(timeLeft);
+            this.writeMove(move);
+            System.err.println(this.name + this.bot.getStats());
+            this.bot.startPondering();
+         }
+      }
+      else { 
+         this.out.write(Parser.UNKNOWN_COMMAND);
+         this.out.flush();
+      }
+   }
+   
+   /**
+    * Stops thinking on the opposing player's time, since the game is over.
+    */
+   void close() {
+      if (this.bot != null) {
+         this.bot.stopPondering();
+      }
+   }
+   
+   /**
+    * @param move the location of our move, as the engine expects it: "x y"
+    */
+   private void writeMove(String move) throws IOException {
+      this.out.write(Parser.PLACE_MOVE);
+      for (int i = 0; i < move.length(); i++) {
+         this.out.write(move.charAt(i));
+      }
+      this.out.write('\n');
+      this.out.flush();
+   }
+   
+   /**
+    * @param ascii   a String of ASCII chars
+    * @return  the bytes of the String
+    */
+   private static byte[] toBytes(String ascii) {
+      byte[] bytes = new byte[ascii.length()];
+      for (int i = 0; i < bytes.length; i++) {
+         bytes[i] = (byte) ascii.charAt(i);
+      }
+      return bytes;
+   }
+   
+   public static void main(String[] args) {
+      Parser parser = new Parser(Options.parse(args));
+      parser.run();
+   }
+}
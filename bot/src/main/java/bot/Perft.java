@@ -0,0 +1,260 @@
+package bot;
+
+import java.util.Arrays;
+import java.util.Stack;
+
+/**
+ * Perft counts the states that can be reached from a state in exactly a given
+ *    number of moves (the leaves of the tree of every move), and how fast
+ *    they were counted. A game that has been won has no moves.
+ *
+ * The count is a check of the rules: any representation of the game that
+ *    follows the same rules gets the same count. In the diff mode, the
+ *    Macroboard of objects and the Bitboard are walked together, and the
+ *    first state where they do not agree on the available moves, the ids of
+ *    the boards, or the winner is reported.
+ *
+ * Usage (every argument is an optional key=value pair):
+ *    java bot.Perft depth=5 mode=diff id=1 field=... macroboard=...
+ *       depth       the number of moves (default 4)
+ *       mode        fast (Bitboard), legacy (Macroboard), or diff
+ *       id          the id of the player that is about to move (default 1)
+ *       field       the locations, as the engine sends them (default empty)
+ *       macroboard  the ids of the boards, as the engine sends them
+ *                      (default every board can be played)
+ */
+public class Perft {
+
+   private static final String EMPTY_FIELD =
+         "0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0," +
+         "0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0," +
+         "0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0";
+   private static final String OPEN_MACROBOARD =
+         "-1,-1,-1,-1,-1,-1,-1,-1,-1";
+
+   private final Macroboard macroboard;
+   private final Bitboard bitboard;
+   //the moves of every ply of the fast count
+   private final int[][] moves;
+   //the moves that lead to the current state of the diff
+   private final int[] path;
+
+   /**
+    * @param field      the locations, as the engine sends them
+    * @param boards     the ids of the boards, as the engine sends them
+    */
+   public Perft(String field, String boards) {
+      this.macroboard = new Macroboard();
+      this.macroboard.updateField(field);
+      this.macroboard.updateBoards(boards);
+      this.bitboard = new Bitboard();
+      this.bitboard.updateField(field);
+      this.bitboard.updateBoards(boards);
+      this.moves = new int[82][81];
+      this.path = new int[82];
+   }
+
+   public static void main(String[] args) {
+      int depth = 4;
+      String mode = "fast";
+      int id = 1;
+      String field = Perft.EMPTY_FIELD;
+      String boards = Perft.OPEN_MACROBOARD;
+      for (String arg : args) {
+         int split = arg.indexOf('=');
+         String key = split < 0 ? arg : arg.substring(0, split);
+         String value = arg.substring(split + 1);
+         if (key.equals("depth")) {
+            depth = Integer.parseInt(value);
+         } else if (key.equals("mode")) {
+            mode = value;
+         } else if (key.equals("id")) {
+            id = Integer.parseInt(value);
+         } else if (key.equals("field")) {
+            field = value;
+         } else if (key.equals("macroboard")) {
+            boards = value;
+         } else {
+            throw new IllegalArgumentException(arg);
+         }
+      }
+      Perft perft = new Perft(field, boards);
+      for (int d = 1; d <= depth; d++) {
+         long start = System.nanoTime();
+         long count;
+         if (mode.equals("fast")) {
+            count = perft.fast(id, d);
+         } else if (mode.equals("legacy")) {
+            count = perft.legacy(id, d);
+         } else if (mode.equals("diff")) {
+            try {
+               count = perft.diff(id, d);
+            } catch (IllegalStateException e) {
+               System.out.println(e.getMessage());
+               System.exit(1);
+               return;
+            }
+         } else {
+            throw new IllegalArgumentException("mode=" + mode);
+         }
+         long elapsed = Math.max(System.nanoTime() - start, 1);
+         System.out.println("perft " + d + ": " + count + " nodes in " +
+               elapsed / 1000000 + " ms (" +
+               count * 1000000000L / elapsed + " nodes/s)");
+      }
+   }
+
+   /**
+    * Counts with the Bitboard.
+    *
+    * @param id      the id of the player that is about to move
+    * @param depth   the number of moves
+    * @return  the number of states after exactly depth moves
+    */
+   public long fast(int id, int depth) {
+      return this.fast(id, depth, 0);
+   }
+
+   /**
+    * Counts with the Macroboard of objects.
+    *
+    * @param id      the id of the player that is about to move
+    * @param depth   the number of moves
+    * @return  the number of states after exactly depth moves
+    */
+   public long legacy(int id, int depth) {
+      if (depth == 0) {
+         return 1;
+      }
+      if (this.macroboard.getWinner() != 0) {
+         return 0;
+      }
+      Stack<Move> available = this.macroboard.getAvailableMoves(id);
+      if (depth == 1) {
+         return available.size();
+      }
+      long count = 0;
+      for (Move move : available) {
+         int boards = this.macroboard.makeMove(move);
+         count += this.legacy(Board.calculateOppID(id), depth - 1);
+         this.macroboard.unmakeMove(move, boards);
+      }
+      return count;
+   }
+
+   /**
+    * Counts with the Macroboard and the Bitboard together.
+    *
+    * @Precondition: the Macroboard and the Bitboard agree on every state;
+    *                   otherwise, throws an IllegalStateException that
+    *                   describes the first state where they do not
+    * @param id      the id of the player that is about to move
+    * @param depth   the number of moves
+    * @return  the number of states after exactly depth moves
+    */
+   public long diff(int id, int depth) {
+      return this.diff(id, depth, 0);
+   }
+
+   private long fast(int id, int depth, int ply) {
+      if (depth == 0) {
+         return 1;
+      }
+      if (this.bitboard.getWinner() != 0) {
+         return 0;
+      }
+      int[] available = this.moves[ply];
+      int count = this.bitboard.getAvailableMoves(available);
+      if (depth == 1) {
+         return count;//no need to make the last moves
+      }
+      long leaves = 0;
+      int oppID = Board.calculateOppID(id);
+      for (int i = 0; i < count; i++) {
+         int boards = this.bitboard.makeMove(available[i], id);
+         leaves += this.fast(oppID, depth - 1, ply + 1);
+         this.bitboard.unmakeMove(available[i], id, boards);
+      }
+      return leaves;
+   }
+
+   private long diff(int id, int depth, int ply) {
+      this.compare(id, ply);
+      if (depth == 0) {
+         return 1;
+      }
+      if (this.bitboard.getWinner() != 0) {
+         return 0;
+      }
+      int[] available = this.moves[ply];
+      int count = this.bitboard.getAvailableMoves(available);
+      long leaves = 0;
+      int oppID = Board.calculateOppID(id);
+      for (int i = 0; i < count; i++) {
+         Move move = Bitboard.toMove(available[i], id);
+         this.path[ply] = available[i];
+         int boards = this.bitboard.makeMove(available[i], id);
+         int legacyBoards = this.macroboard.makeMove(move);
+         leaves += this.diff(oppID, depth - 1, ply + 1);
+         this.macroboard.unmakeMove(move, legacyBoards);
+         this.bitboard.unmakeMove(available[i], id, boards);
+      }
+      return leaves;
+   }
+
+   /**
+    * @param id   the id of the player that is about to move
+    * @param ply  the number of moves in path
+    */
+   private void compare(int id, int ply) {
+      String problem = null;
+      int winner = this.bitboard.getWinner();
+      if (this.macroboard.getWinner() != winner) {
+         problem = "winner";
+      }
+      for (int board = 0; board < Board.ROWS * Board.COLS; board++) {
+         if (this.macroboard.getID(board / Board.COLS, board % Board.COLS) !=
+             this.bitboard.getID(board)) {
+            problem = "id of board " + board;
+         }
+      }
+      if (problem == null && winner == 0) {
+         Stack<Move> legacyMoves = this.macroboard.getAvailableMoves(id);
+         int[] expected = new int[legacyMoves.size()];
+         for (int i = 0; i < expected.length; i++) {
+            expected[i] = Bitboard.toIndex(legacyMoves.get(i));
+         }
+         int[] buffer = new int[81];
+         int[] actual = Arrays.copyOf(buffer,
+               this.bitboard.getAvailableMoves(buffer));
+         Arrays.sort(expected);
+         Arrays.sort(actual);
+         if (!Arrays.equals(expected, actual)) {
+            problem = "available moves " + Arrays.toString(actual) +
+                      ", expected " + Arrays.toString(expected);
+         }
+      }
+      if (problem != null) {
+         String moves = "";
+         for (int i = 0; i < ply; i++) {
+            moves += " " + this.path[i];
+         }
+         throw new IllegalStateException("Bitboard and Macroboard disagree " +
+               "on the " + problem + " after the moves" + moves + ":\n" +
+               this.macroboard.getLocations() + "\n" +
+               "Macroboard ids: " + this.macroboard.getBoards() + "\n" +
+               "Bitboard ids:   " + this.getBitboardIDs());
+      }
+   }
+
+   /**
+    * @return  the ids of the boards of the Bitboard, as the engine sends them
+    */
+   private String getBitboardIDs() {
+      String result = "";
+      for (int board = 0; board < Board.ROWS * Board.COLS; board++) {
+         result += "," + this.bitboard.getID(board);
+      }
+      return result.substring(1);//takes care of fencepost
+   }
+}
@@ -0,0 +1,276 @@
+package bot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * ProtocolReader reads the lines that the engine sends us, one at a time,
+ *    and splits them into words (tokens) separated by spaces.
+ *
+ * The bytes are read into one buffer that is reused for every line, and a
+ *    token is only a start and an end in that buffer, so reading a line
+ *    makes no objects: tokens are compared with is(int, String) and numbers
+ *    are parsed straight from the bytes with getInt(int) and getInts(int,
+ *    int[]). A line longer than the buffer makes the buffer grow, which is
+ *    the only time anything is made after the first line.
+ *
+ * A ProtocolReader can also be given its bytes with append(byte[], int, int)
+ *    instead of reading them from a stream, for input that can not be
+ *    waited on (see GameServer). Then nextLine() only moves on to lines that
+ *    have been given in full, and keeps the rest for later.
+ *
+ * The protocol only uses ASCII, so every byte is a char.
+ */
+public class ProtocolReader {
+
+   //null if the bytes are given with append(byte[], int, int)
+   private final InputStream in;
+   //the bytes read so far that have not been used up yet are in [next, limit)
+   private byte[] buffer;
+   private int next;
+   private int limit;
+   //where every token of the current line starts and ends (exclusive)
+   private int[] starts;
+   private int[] ends;
+   private int count;
+
+   public ProtocolReader(InputStream myIn) {
+      this.in = myIn;
+      this.buffer = new byte[1 << 12];
+      this.starts = new int[8];
+      this.ends = new int[8];
+   }
+
+   /**
+    * Makes a ProtocolReader that is given its bytes with append(byte[], int,
+    *    int) instead of reading them.
+    */
+   public ProtocolReader() {
+      this(null);
+   }
+
+   /**
+    * Adds bytes after the ones given so far. Only for a ProtocolReader that
+    *    does not read from a stream.
+    *
+    * @param bytes
+    * @param offset  where the bytes to add start
+    * @param length  the number of bytes to add
+    */
+   public void append(byte[] bytes, int offset, int length) {
+      if (this.in != null) {
+         throw new IllegalStateException("reads from a stream");
+      }
+      while (this.buffer.length - this.limit < length) {
+         this.compact();
+         if (this.buffer.length - this.limit < length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+         }
+      }
+      System.arraycopy(bytes, offset, this.buffer, this.limit, length);
+      this.limit += length;
+   }
+
+   /**
+    * Moves on to the next line and splits it into tokens. Waits until the
+    *    whole line has been sent (or the input ends). If the bytes are given
+    *    with append(byte[], int, int), does not wait: a line that has not
+    *    been given in full is left for later.
+    *
+    * @return  false if there are no more lines (for now); otherwise, true
+    */
+   public boolean nextLine() throws IOException {
+      int scanned = this.next;
+      int newline = -1;
+      while (newline < 0) {
+         for (int i = scanned; i < this.limit; i++) {
+            if (this.buffer[i] == '\n') {
+               newline = i;
+               break;
+            }
+         }
+         if (newline >= 0) {
+            break;
+         }
+         //the line is not all here yet
+         if (this.in == null) {
+            this.count = 0;
+            return false;
+         }
+         scanned = this.limit - this.next;
+         this.compact();
+         int read = this.in.read(this.buffer, this.limit,
+               this.buffer.length - this.limit);
+         if (read < 0) {
+            if (this.limit == this.next) {
+               this.count = 0;
+               return false;
+            }
+            newline = this.limit;//the last line has no newline
+         } else {
+            this.limit += read;
+         }
+      }
+      int end = newline;
+      if (end > this.next && this.buffer[end - 1] == '\r') {
+         end--;
+      }
+      this.tokenize(this.next, end);
+      this.next = Math.min(newline + 1, this.limit);
+      return true;
+   }
+
+   /**
+    * Moves the bytes that have not been used up to the start of the buffer,
+    *    and makes the buffer bigger if it has no room left after that.
+    */
+   private void compact() {
+      int left = this.limit - this.next;
+      if (this.next > 0) {
+         System.arraycopy(this.buffer, this.next, this.buffer, 0, left);
+         this.next = 0;
+         this.limit = left;
+      }
+      if (this.limit == this.buffer.length) {
+         this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+      }
+   }
+
+   /**
+    * @param start   the first byte of the line
+    * @param end     the byte after the last byte of the line
+    */
+   private void tokenize(int start, int end) {
+      this.count = 0;
+      int i = start;
+      while (i < end) {
+         if (this.buffer[i] == ' ') {
+            i++;
+            continue;
+         }
+         if (this.count == this.starts.length) {
+            this.starts = Arrays.copyOf(this.starts, this.count * 2);
+            this.ends = Arrays.copyOf(this.ends, this.count * 2);
+         }
+         this.starts[this.count] = i;
+         while (i < end && this.buffer[i] != ' ') {
+            i++;
+         }
+         this.ends[this.count] = i;
+         this.count++;
+      }
+   }
+
+   /**
+    * @return  the number of tokens of the current line; 0 if it is empty
+    */
+   public int getTokenCount() {
+      return this.count;
+   }
+
+   /**
+    * @param token   the index of a token of the current line
+    * @param word    an ASCII word
+    * @return  true if the line has that token and it is the given word
+    */
+   public boolean is(int token, String word) {
+      if (token >= this.count ||
+          this.ends[token] - this.starts[token] != word.length()) {
+         return false;
+      }
+      int start = this.starts[token];
+      for (int i = 0; i < word.length(); i++) {
+         if (this.buffer[start + i] != word.charAt(i)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * @Precondition: the line has the token and it is a whole number;
+    *                   otherwise, throws an IllegalArgumentException
+    * @param token   the index of a token of the current line
+    * @return  the number
+    */
+   public int getInt(int token) {
+      if (token >= this.count) {
+         throw new IllegalArgumentException("no token " + token);
+      }
+      return this.parseInt(this.starts[token], this.ends[token]);
+   }
+
+   /**
+    * @Precondition: the line has the token and it is a list of whole numbers
+    *                   separated by commas, with room for all of them in
+    *                   numbers; otherwise, throws an IllegalArgumentException
+    * @param token   the index of a token of the current line
+    * @param numbers where the numbers are put, in order
+    * @return  how many numbers there were
+    */
+   public int getInts(int token, int[] numbers) {
+      if (token >= this.count) {
+         throw new IllegalArgumentException("no token " + token);
+      }
+      int found = 0;
+      int start = this.starts[token];
+      int end = this.ends[token];
+      while (start <= end) {
+         int comma = start;
+         while (comma < end && this.buffer[comma] != ',') {
+            comma++;
+         }
+         if (found == numbers.length) {
+            throw new IllegalArgumentException("more than " + found +
+                  " numbers in " + this.getString(token));
+         }
+         numbers[found++] = this.parseInt(start, comma);
+         start = comma + 1;
+      }
+      return found;
+   }
+
+   /**
+    * Makes a String, so it is meant for tokens that are not used every turn.
+    *
+    * @param token   the index of a token of the current line
+    * @return  the token; an empty String if the line does not have it
+    */
+   public String getString(int token) {
+      if (token >= this.count) {
+         return "";
+      }
+      char[] chars = new char[this.ends[token] - this.starts[token]];
+      for (int i = 0; i < chars.length; i++) {
+         chars[i] = (char) this.buffer[this.starts[token] + i];
+      }
+      return new String(chars);
+   }
+
+   /**
+    * @Precondition: [start, end) is a whole number that fits in an int;
+    *                   otherwise, throws an IllegalArgumentException
+    * @param start   the first byte of the number
+    * @param end     the byte after the last byte of the number
+    * @return  the number
+    */
+   private int parseInt(int start, int end) {
+      boolean negative = start < end && this.buffer[start] == '-';
+      int i = negative ? start + 1 : start;
+      if (i == end || end - i > 9) {
+         throw new IllegalArgumentException("not a number: " +
+               new String(this.buffer, start, end - start));
+      }
+      int result = 0;
+      for (; i < end; i++) {
+         int digit = this.buffer[i] - '0';
+         if (digit < 0 || digit > 9) {
+            throw new IllegalArgumentException("not a number: " +
+                  new String(this.buffer, start, end - start));
+         }
+         result = result * 10 + digit;
+      }
+      return negative ? -result : result;
+   }
+}
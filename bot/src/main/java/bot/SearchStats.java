@@ -0,0 +1,263 @@
+package bot;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * SearchStats counts what a search did, so that a slow move can be explained.
+ *
+ * Every searcher (and every thread) has its own SearchStats, so counting
+ *    needs no synchronization; once a search is over, the counts of the
+ *    helpers are added to the counts of the main searcher.
+ *
+ * toString() gives the statistics as one line of key=value pairs, e.g.
+ *    stats engine=Bot ms=480 nodes=912384 nps=1900800 depth=11 ebf=4.12
+ *    cutoffs=0.473 first_cutoffs=0.918 tt_hits=0.281 alloc=1024
+ *    iterations=0,0,0,1,3,6,13,27,51,108,268 pv=44,33,00,11 pondered=402113
+ *    ponder_depth=9
+ * iterations is the time (ms) of every iteration of iterative deepening,
+ *    and pv is the principal variation (the line both players are expected
+ *    to play), every move as the x and y of place_move. pondered and
+ *    ponder_depth are the nodes and the depth searched on the opposing
+ *    player's time before this search (0 without the ponder option).
+ * alloc is the bytes allocated for this move by every thread that worked
+ *    on it: the search itself, its helpers (with the threads option), and
+ *    the ponderer before it (with the ponder option).
+ * A rate is -1 if there is nothing to divide by, and alloc is -1 if the
+ *    JVM can not tell. For MonteCarloBot, nodes are playouts and depth is
+ *    the deepest node of the tree that a playout started from.
+ */
+public class SearchStats {
+
+   //the name of the kind of Engine that searched
+   private final String engine;
+   //nodes visited
+   long nodes;
+   //nodes whose moves were searched
+   long expanded;
+   //moves searched at those nodes
+   long searched;
+   //nodes where a move was too good for the opposing player to allow
+   long cutoffs;
+   //...where that was the first move searched
+   long firstCutoffs;
+   //lookups in the transposition table, and how many found an entry
+   long probes;
+   long hits;
+   //the depth of the deepest search that finished
+   int depth;
+   //the time (ns) every iteration of iterative deepening took
+   private final long[] iterations;
+   private int iterationCount;
+   //the time (ns) and bytes the whole search took; alloc is -1 if unknown
+   private long elapsed;
+   private long allocated;
+   //the principal variation of the deepest search that finished
+   final int[] pv;
+   int pvLength;
+   //the nodes and depth searched on the opposing player's time before this
+   long pondered;
+   int ponderDepth;
+   //the bytes the helpers and the ponderer allocated, which alloc includes
+   long otherAllocated;
+
+   /**
+    * @param myEngine   the name of the kind of Engine that searches
+    */
+   public SearchStats(String myEngine) {
+      this.engine = myEngine;
+      this.iterations = new long[82];
+      this.pv = new int[82];
+   }
+
+   /**
+    * Forgets the last search.
+    */
+   public void clear() {
+      this.nodes = 0;
+      this.expanded = 0;
+      this.searched = 0;
+      this.cutoffs = 0;
+      this.firstCutoffs = 0;
+      this.probes = 0;
+      this.hits = 0;
+      this.depth = 0;
+      this.iterationCount = 0;
+      this.elapsed = 0;
+      this.allocated = -1;
+      this.pvLength = 0;
+      this.pondered = 0;
+      this.ponderDepth = 0;
+      this.otherAllocated = 0;
+   }
+
+   /**
+    * Adds the counts of another searcher (e.g. a helper in another thread).
+    *    The iterations, time and bytes of the other searcher are not added.
+    *
+    * @param other   the counts to add
+    */
+   public void add(SearchStats other) {
+      this.nodes += other.nodes;
+      this.expanded += other.expanded;
+      this.searched += other.searched;
+      this.cutoffs += other.cutoffs;
+      this.firstCutoffs += other.firstCutoffs;
+      this.probes += other.probes;
+      this.hits += other.hits;
+      this.depth = Math.max(this.depth, other.depth);
+   }
+
+   /**
+    * @Precondition: fewer than 82 iterations have been recorded since
+    *                   clear(); later ones are not kept
+    * @param time    the time (ns) the iteration took
+    */
+   void endIteration(long time) {
+      if (this.iterationCount < this.iterations.length) {
+         this.iterations[this.iterationCount++] = time;
+      }
+   }
+
+   /**
+    * @param moves   the indices of the moves of the principal variation
+    *                   (see Bitboard.toIndex(Move))
+    * @param length  the number of moves
+    */
+   void setPV(int[] moves, int length) {
+      System.arraycopy(moves, 0, this.pv, 0, length);
+      this.pvLength = length;
+   }
+
+   /**
+    * @param time    the time (ns) the search took
+    * @param bytes   the bytes the thread of the search allocated; -1 if
+    *                   unknown
+    */
+   void endSearch(long time, long bytes) {
+      this.elapsed = time;
+      this.allocated = bytes < 0 ? -1 : bytes + this.otherAllocated;
+   }
+
+   public String getEngine() {
+      return this.engine;
+   }
+
+   public long getNodes() {
+      return this.nodes;
+   }
+
+   public int getDepth() {
+      return this.depth;
+   }
+
+   /**
+    * @return  the time (ns) the search took
+    */
+   public long getElapsed() {
+      return this.elapsed;
+   }
+
+   public long getNodesPerSecond() {
+      return this.nodes * 1000000000L / Math.max(this.elapsed, 1);
+   }
+
+   /**
+    * @return  the average number of moves searched at a node
+    */
+   public double getBranchingFactor() {
+      return SearchStats.rate(this.searched, this.expanded);
+   }
+
+   /**
+    * @return  the share of nodes where the search was cut off
+    */
+   public double getCutoffRate() {
+      return SearchStats.rate(this.cutoffs, this.expanded);
+   }
+
+   /**
+    * @return  the share of cutoffs that came from the first move searched
+    */
+   public double getFirstCutoffRate() {
+      return SearchStats.rate(this.firstCutoffs, this.cutoffs);
+   }
+
+   /**
+    * @return  the share of lookups in the transposition table that found
+    *             an entry
+    */
+   public double getHitRate() {
+      return SearchStats.rate(this.hits, this.probes);
+   }
+
+   /**
+    * @return  the bytes every thread allocated for the search (see alloc
+    *             above); -1 if unknown
+    */
+   public long getAllocated() {
+      return this.allocated;
+   }
+
+   /**
+    * @return  the bytes the current thread has allocated so far; -1 if the
+    *             JVM can not tell
+    */
+   static long allocatedBytes() {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+         com.sun.management.ThreadMXBean sun =
+               (com.sun.management.ThreadMXBean) bean;
+         if (sun.isThreadAllocatedMemorySupported() &&
+             sun.isThreadAllocatedMemoryEnabled()) {
+            return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+         }
+      }
+      return -1;
+   }
+
+   private static double rate(long part, long whole) {
+      if (whole == 0) {
+         return -1;
+      }
+      return (double) part / whole;
+   }
+
+   /**
+    * @return  the statistics as one line of key=value pairs
+    */
+   @Override
+   public String toString() {
+      String result = "stats engine=" + this.engine +
+            " ms=" + this.elapsed / 1000000 +
+            " nodes=" + this.nodes +
+            " nps=" + this.getNodesPerSecond() +
+            " depth=" + this.depth +
+            String.format(Locale.ROOT,
+                  " ebf=%.2f cutoffs=%.3f first_cutoffs=%.3f tt_hits=%.3f",
+                  this.getBranchingFactor(), this.getCutoffRate(),
+                  this.getFirstCutoffRate(), this.getHitRate()) +
+            " alloc=" + this.allocated +
+            " iterations=";
+      for (int i = 0; i < this.iterationCount; i++) {
+         if (i > 0) {
+            result += ",";
+         }
+         result += this.iterations[i] / 1000000;
+      }
+      result += " pv=";
+      for (int i = 0; i < this.pvLength; i++) {
+         if (i > 0) {
+            result += ",";
+         }
+         int board = this.pv[i] / 9;
+         int cell = this.pv[i] % 9;
+         result += (board % Board.COLS) * Board.COLS + cell % Board.COLS;
+         result += (board / Board.COLS) * Board.ROWS + cell / Board.COLS;
+      }
+      result += " pondered=" + this.pondered +
+                " ponder_depth=" + this.ponderDepth;
+      return result;
+   }
+}
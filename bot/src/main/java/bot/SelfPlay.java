@@ -0,0 +1,514 @@
+package bot;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SelfPlay plays two configurations of the bot (A and B) against each other
+ *    many times, to tell whether a change made the bot stronger.
+ *    e.g. java bot.SelfPlay games=1000 a.engine=negamax b.engine=mcts
+ *
+ * Every game is refereed by a Macroboard, which follows the same rules as
+ *    the engine, and both sides get the field and the macroboard before
+ *    every move just like they do from the engine. A move that is not
+ *    available or a side that runs out of time loses the game.
+ *
+ * Games are played at the same time on every core. Each thread has its own
+ *    engines, which only that thread uses, and plays one game at a time.
+ *
+ * Every opening (a few random moves, or an opening from a file) is played
+ *    twice, once with each side moving first, so that neither side is
+ *    luckier with the openings than the other.
+ *
+ * Usage (every argument is an optional key=value pair):
+ *    games       the number of games (default 100); made even, since every
+ *                   opening is played twice
+ *    threads     the number of games played at the same time (default the
+ *                   number of cores)
+ *    plies       the number of random moves of every opening (default 4)
+ *    openings    a file to take the openings from instead: one opening per
+ *                   line, the indices of its moves (see Bitboard.toIndex)
+ *                   separated by spaces
+ *    seed        the seed of the random openings (default 1)
+ *    timebank    the timebank of both sides in milliseconds (default 2000)
+ *    time        the time_per_move of both sides in milliseconds (default 100)
+ *    a.<key>     an option of A (see Options); the hash defaults to 16
+ *    b.<key>     an option of B
+ *    a.depth     a depth for A to search to instead of using its clock
+ *                   (negamax only); b.depth is the same for B
+ *
+ * The report gives the wins, draws and losses of A, the difference in Elo
+ *    between A and B with a 95% confidence interval, and the average time
+ *    each side took for a move.
+ */
+public class SelfPlay {
+
+   //the z-score of a two-sided 95% confidence interval
+   private static final double Z_95 = 1.96;
+
+   private final Side[] sides;
+   private final int games;
+   private final int threads;
+   private final List<int[]> openings;
+
+   /**
+    * @param a          the configuration of A
+    * @param b          the configuration of B
+    * @param myGames    the number of games, which is even
+    * @param myThreads  the number of games played at the same time
+    * @param myOpenings the openings, one for every two games
+    */
+   public SelfPlay(Side a, Side b, int myGames, int myThreads,
+         List<int[]> myOpenings) {
+      this.sides = new Side[] {a, b};
+      this.games = myGames;
+      this.threads = myThreads;
+      this.openings = myOpenings;
+   }
+
+   public static void main(String[] args) throws IOException {
+      int games = 100;
+      int threads = Runtime.getRuntime().availableProcessors();
+      int plies = 4;
+      String file = null;
+      long seed = 1;
+      Side a = new Side();
+      Side b = new Side();
+      for (String arg : args) {
+         int split = arg.indexOf('=');
+         if (split < 0) {
+            throw new IllegalArgumentException(arg);
+         }
+         String key = arg.substring(0, split);
+         String value = arg.substring(split + 1);
+         if (key.equals("games")) {
+            games = Options.parsePositive(key, value);
+         } else if (key.equals("threads")) {
+            threads = Options.parsePositive(key, value);
+         } else if (key.equals("plies")) {
+            plies = Options.parseNonNegative(key, value);
+         } else if (key.equals("openings")) {
+            file = value;
+         } else if (key.equals("seed")) {
+            seed = Long.parseLong(value);
+         } else if (key.equals("timebank")) {
+            a.clock.setTimebank(Options.parsePositive(key, value));
+            b.clock.setTimebank(Options.parsePositive(key, value));
+         } else if (key.equals("time")) {
+            a.clock.setTimePerMove(Options.parseNonNegative(key, value));
+            b.clock.setTimePerMove(Options.parseNonNegative(key, value));
+         } else if (key.startsWith("a.")) {
+            a.set(key.substring(2), value);
+         } else if (key.startsWith("b.")) {
+            b.set(key.substring(2), value);
+         } else {
+            throw new IllegalArgumentException(arg);
+         }
+      }
+      games += games % 2;
+      List<int[]> openings;
+      if (file == null) {
+         openings = SelfPlay.randomOpenings(games / 2, plies, new Random(seed));
+      } else {
+         openings = SelfPlay.readOpenings(file);
+      }
+      SelfPlay selfPlay = new SelfPlay(a, b, games, threads, openings);
+      System.out.println(selfPlay.run().report(args));
+   }
+
+   /**
+    * Plays every game.
+    * @return  the results of A
+    */
+   public Tally run() {
+      ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+      final AtomicInteger next = new AtomicInteger();
+      List<Future<Tally>> workers = new ArrayList<Future<Tally>>();
+      for (int i = 0; i < this.threads; i++) {
+         workers.add(pool.submit(new Callable<Tally>() {
+            @Override
+            public Tally call() {
+               return SelfPlay.this.work(next);
+            }
+         }));
+      }
+      Tally total = new Tally();
+      try {
+         for (Future<Tally> worker : workers) {
+            total.add(worker.get());
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new IllegalStateException(e);
+      } catch (ExecutionException e) {
+         throw new IllegalStateException(e.getCause());
+      } finally {
+         pool.shutdownNow();
+      }
+      return total;
+   }
+
+   /**
+    * Plays games until every game has been played, with engines that only
+    *    this thread uses.
+    *
+    * @param next the number of the next game to play
+    * @return  the results of A in the games this thread played
+    */
+   private Tally work(AtomicInteger next) {
+      //engines[side][id] plays for A (0) or B (1) as the player with the id
+      Engine[][] engines = new Engine[2][3];
+      for (int side = 0; side < 2; side++) {
+         for (int id = 1; id <= 2; id++) {
+            engines[side][id] = Engine.create(id, this.sides[side].clock,
+                  this.sides[side].options);
+         }
+      }
+      Tally tally = new Tally();
+      for (int game = next.getAndIncrement(); game < this.games;
+            game = next.getAndIncrement()) {
+         int[] opening = this.openings.get(game / 2 % this.openings.size());
+         int first = game % 2;//A moves first in even games
+         for (int side = 0; side < 2; side++) {
+            for (int id = 1; id <= 2; id++) {
+               if (engines[side][id] instanceof Bot) {
+                  ((Bot) engines[side][id]).clearTable();
+               }
+            }
+         }
+         int winner = this.play(opening, engines[first][1],
+               engines[1 - first][2], first, tally);
+         if (winner == 0) {
+            tally.draws++;
+         } else if ((winner == 1) == (first == 0)) {
+            tally.wins++;
+         } else {
+            tally.losses++;
+         }
+      }
+      return tally;
+   }
+
+   /**
+    * @param opening the indices of the first moves of the game
+    * @param one     the engine of player 1
+    * @param two     the engine of player 2
+    * @param first   the side of player 1: 0 for A, 1 for B
+    * @param tally   where the time of every move is added
+    * @return  the id of the player that won; 0 if it was a draw
+    */
+   private int play(int[] opening, Engine one, Engine two, int first,
+         Tally tally) {
+      Macroboard referee = new Macroboard();
+      referee.updateBoards("-1,-1,-1,-1,-1,-1,-1,-1,-1");
+      int id = 1;
+      for (int index : opening) {
+         referee.makeMove(Bitboard.toMove(index, id));
+         id = Board.calculateOppID(id);
+      }
+      Engine[] players = {null, one, two};
+      int[] timeLeft = {0, this.sides[first].clock.getTimebank(),
+            this.sides[1 - first].clock.getTimebank()};
+      int[] field = new int[81];
+      int[] boards = new int[9];
+      while (referee.getWinner() == 0 &&
+             !referee.getAvailableMoves(id).isEmpty()) {
+         int side = id == 1 ? first : 1 - first;
+         Engine player = players[id];
+         Side config = this.sides[side];
+         SelfPlay.getField(referee, field, boards);
+         player.setField(field);
+         player.setMacroboard(boards);
+         timeLeft[id] = Math.min(timeLeft[id] + config.clock.getTimePerMove(),
+               config.clock.getTimebank());
+         long start = System.nanoTime();
+         Move move;
+         if (config.depth > 0) {
+            move = ((Bot) player).pickBestMove(id, config.depth);
+            player.play(move);//as pickBestMove(int) does
+         } else {
+            move = SelfPlay.toMove(player.pickBestMove(timeLeft[id]), id);
+         }
+         long elapsed = System.nanoTime() - start;
+         tally.time[side] += elapsed;
+         tally.moves[side]++;
+         if (config.depth <= 0) {
+            timeLeft[id] -= (int) (elapsed / 1000000);
+            if (timeLeft[id] < 0) {
+               tally.timeouts[side]++;
+               return Board.calculateOppID(id);
+            }
+         }
+         if (!SelfPlay.isAvailable(referee.getAvailableMoves(id), move)) {
+            System.err.println("Illegal move by " + (side == 0 ? "A" : "B") +
+                  ": " + move);
+            tally.illegal[side]++;
+            return Board.calculateOppID(id);
+         }
+         referee.makeMove(move);
+         id = Board.calculateOppID(id);
+      }
+      return referee.getWinner();
+   }
+
+   /**
+    * @param move the location of a move as the engine expects it: "x y"
+    * @param id   the id of the player that made the move
+    * @return  the move; null if there is none
+    */
+   private static Move toMove(String move, int id) {
+      int split = move.indexOf(' ');
+      if (split < 0) {
+         return null;
+      }
+      int col = Integer.parseInt(move.substring(0, split));
+      int row = Integer.parseInt(move.substring(split + 1));
+      return new Move(row % Board.ROWS, col % Board.COLS, row / Board.ROWS,
+            col / Board.COLS, id);
+   }
+
+   /**
+    * @param available  the available moves
+    * @param move       a move; may be null
+    * @return  true if the move is one of the available moves
+    */
+   private static boolean isAvailable(Stack<Move> available, Move move) {
+      if (move == null) {
+         return false;
+      }
+      for (Move other : available) {
+         if (other.row == move.row && other.col == move.col &&
+             other.boardRow == move.boardRow &&
+             other.boardCol == move.boardCol) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Reads the state of the referee the way the engine sends it.
+    * @param referee the state of the game
+    * @param field   where the id of every location is put, row by row of
+    *                   the whole field
+    * @param boards  where the id of every board is put
+    */
+   private static void getField(Macroboard referee, int[] field,
+         int[] boards) {
+      int numLocs = Board.ROWS * Board.COLS;
+      for (int i = 0; i < field.length; i++) {
+         int microRow = i / numLocs;
+         int microCol = i % numLocs;
+         field[i] = referee.get(microRow / Board.ROWS, microCol / Board.COLS).
+               getID(microRow % Board.ROWS, microCol % Board.COLS);
+      }
+      for (int i = 0; i < boards.length; i++) {
+         boards[i] = referee.getID(i / Board.COLS, i % Board.COLS);
+      }
+   }
+
+   /**
+    * @param count   the number of openings
+    * @param plies   the number of moves of every opening
+    * @param random
+    * @return  openings of random moves that do not end the game
+    */
+   private static List<int[]> randomOpenings(int count, int plies,
+         Random random) {
+      List<int[]> openings = new ArrayList<int[]>();
+      Bitboard board = new Bitboard();
+      int[] moves = new int[81];
+      while (openings.size() < count) {
+         board.updateField(new int[81]);
+         board.updateBoards(new int[] {-1, -1, -1, -1, -1, -1, -1, -1, -1});
+         int[] opening = new int[plies];
+         int id = 1;
+         boolean over = false;
+         for (int i = 0; i < plies && !over; i++) {
+            opening[i] = moves[random.nextInt(board.getAvailableMoves(moves))];
+            board.makeMove(opening[i], id);
+            id = Board.calculateOppID(id);
+            over = board.getWinner() != 0 ||
+                   board.getAvailableMoves(moves) == 0;
+         }
+         if (!over) {
+            openings.add(opening);
+         }
+      }
+      return openings;
+   }
+
+   /**
+    * @Precondition: the file has at least one opening; otherwise, throws an
+    *                   IllegalArgumentException
+    * @param file the path of a file of openings (see the usage above)
+    * @return  the openings in the file
+    */
+   private static List<int[]> readOpenings(String file) throws IOException {
+      List<int[]> openings = new ArrayList<int[]>();
+      BufferedReader reader = new BufferedReader(new FileReader(file));
+      try {
+         for (String line = reader.readLine(); line != null;
+               line = reader.readLine()) {
+            line = line.trim();
+            if (line.isEmpty()) {
+               continue;
+            }
+            String[] parts = line.split("\\s+");
+            int[] opening = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+               opening[i] = Integer.parseInt(parts[i]);
+            }
+            openings.add(opening);
+         }
+      } finally {
+         reader.close();
+      }
+      if (openings.isEmpty()) {
+         throw new IllegalArgumentException("no openings in " + file);
+      }
+      return openings;
+   }
+
+   /**
+    * The settings of one side.
+    */
+   public static class Side {
+
+      final Options options;
+      final Clock clock;
+      //the depth to search to; 0 to use the clock
+      int depth;
+
+      public Side() {
+         this.options = new Options();
+         this.options.set("hash", "16");//there are four engines per thread
+         this.clock = new Clock();
+         this.clock.setTimebank(2000);
+         this.clock.setTimePerMove(100);
+      }
+
+      /**
+       * @Precondition: key is depth or a key of Options; otherwise, throws
+       *                   an IllegalArgumentException
+       * @param key
+       * @param value
+       */
+      public void set(String key, String value) {
+         if (key.equals("depth")) {
+            this.depth = Options.parseNonNegative(key, value);
+         } else {
+            this.options.set(key, value);
+         }
+         if (this.depth > 0 && !this.options.getEngine().equals("negamax")) {
+            throw new IllegalArgumentException("depth needs engine=negamax");
+         }
+      }
+   }
+
+   /**
+    * The results of A, and how long both sides took.
+    */
+   public static class Tally {
+
+      int wins;
+      int draws;
+      int losses;
+      //by side: 0 for A, 1 for B
+      final long[] time = new long[2];
+      final long[] moves = new long[2];
+      final int[] timeouts = new int[2];
+      final int[] illegal = new int[2];
+
+      void add(Tally other) {
+         this.wins += other.wins;
+         this.draws += other.draws;
+         this.losses += other.losses;
+         for (int side = 0; side < 2; side++) {
+            this.time[side] += other.time[side];
+            this.moves[side] += other.moves[side];
+            this.timeouts[side] += other.timeouts[side];
+            this.illegal[side] += other.illegal[side];
+         }
+      }
+
+      /**
+       * @return  the share of the points that A got (a draw is half a point)
+       */
+      public double getScore() {
+         return (this.wins + this.draws / 2.0) / this.getGames();
+      }
+
+      public int getGames() {
+         return this.wins + this.draws + this.losses;
+      }
+
+      /**
+       * @return  the standard error of the score of a game
+       */
+      public double getError() {
+         double score = this.getScore();
+         double variance = (this.wins * (1 - score) * (1 - score) +
+               this.draws * (0.5 - score) * (0.5 - score) +
+               this.losses * score * score) / this.getGames();
+         return Math.sqrt(variance / this.getGames());
+      }
+
+      /**
+       * @param score   a share of the points
+       * @return  the difference in Elo that gives that score
+       */
+      public static double elo(double score) {
+         if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+         } else if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+         }
+         return 400 * Math.log10(score / (1 - score));
+      }
+
+      /**
+       * @param args the arguments that SelfPlay was given
+       * @return  the results in a form for people
+       */
+      public String report(String[] args) {
+         double score = this.getScore();
+         double error = SelfPlay.Z_95 * this.getError();
+         String settings = "";
+         for (String arg : args) {
+            settings += " " + arg;
+         }
+         return String.format(Locale.ROOT,
+               "SelfPlay%s%n" +
+               "Games: %d, A: %d wins, %d draws, %d losses (%.1f%%)%n" +
+               "Elo of A - B: %+.1f (95%%: %+.1f to %+.1f)%n" +
+               "Time per move: A %.1f ms, B %.1f ms%n" +
+               "Timeouts: A %d, B %d; illegal moves: A %d, B %d",
+               settings, this.getGames(), this.wins, this.draws, this.losses,
+               100 * score, Tally.elo(score), Tally.elo(score - error),
+               Tally.elo(score + error), this.getAverage(0),
+               this.getAverage(1), this.timeouts[0], this.timeouts[1],
+               this.illegal[0], this.illegal[1]);
+      }
+
+      /**
+       * @param side 0 for A, 1 for B
+       * @return  the average time (ms) the side took for a move
+       */
+      private double getAverage(int side) {
+         return this.time[side] / 1e6 / Math.max(this.moves[side], 1);
+      }
+   }
+}
@@ -0,0 +1,169 @@
+package bot;
+
+/**
+ * Symmetry keeps lookup tables for the 8 symmetries of the game: the 4
+ *    rotations by a quarter turn, each with or without a reflection. A
+ *    symmetry moves the boards within the macroboard and the locations within
+ *    every board the same way, so a state and the state it is moved to are
+ *    equally good, and the best move of one is the best move of the other
+ *    (moved the same way).
+ *
+ * Bitboard keeps the hash of every symmetry of the state while moves are made
+ *    (see Bitboard.getHash(int)). The lowest of the 8 hashes is the canonical
+ *    key of the state, which is the same for a state and all of its
+ *    symmetries, so a table that is looked up by that key finds what was
+ *    stored for any of them. A move is stored moved by the symmetry whose hash
+ *    is the key (see toCanonical(int, int)), and moved back when it is looked
+ *    up (see fromCanonical(int, int)).
+ *
+ * Symmetry 0 moves nothing, symmetries 1 to 3 turn the board 1 to 3 quarter
+ *    turns clockwise, and symmetries 4 to 7 do the same and then reflect the
+ *    board left to right.
+ */
+public final class Symmetry {
+
+   //number of symmetries
+   public static final int COUNT = 8;
+
+   //LOCATIONS[s][loc] is the location that loc is moved to by symmetry s
+   private static final int[][] LOCATIONS = new int[Symmetry.COUNT][Lines.SIZE];
+   //INDICES[s][index] is the index of the move that the move is moved to
+   private static final int[][] INDICES = new int[Symmetry.COUNT][81];
+   //MOVED[s][mask] is the mask with every location moved by symmetry s
+   private static final int[][] MOVED = new int[Symmetry.COUNT][Lines.MASKS];
+   //INVERSES[s] is the symmetry that moves everything back
+   private static final int[] INVERSES = new int[Symmetry.COUNT];
+
+   static {
+      for (int s = 0; s < Symmetry.COUNT; s++) {
+         for (int row = 0; row < Board.ROWS; row++) {
+            for (int col = 0; col < Board.COLS; col++) {
+               int newRow = row;
+               int newCol = col;
+               for (int turn = 0; turn < (s & 3); turn++) {
+                  int oldRow = newRow;
+                  newRow = newCol;
+                  newCol = Board.COLS - 1 - oldRow;
+               }
+               if (s > 3) {
+                  newCol = Board.COLS - 1 - newCol;
+               }
+               Symmetry.LOCATIONS[s][row * Board.COLS + col] =
+                     newRow * Board.COLS + newCol;
+            }
+         }
+         for (int index = 0; index < 81; index++) {
+            Symmetry.INDICES[s][index] =
+                  Symmetry.LOCATIONS[s][index / 9] * 9 +
+                  Symmetry.LOCATIONS[s][index % 9];
+         }
+         for (int mask = 1; mask < Lines.MASKS; mask++) {
+            int loc = Integer.numberOfTrailingZeros(mask);
+            Symmetry.MOVED[s][mask] = Symmetry.MOVED[s][mask & (mask - 1)] |
+                                      1 << Symmetry.LOCATIONS[s][loc];
+         }
+      }
+      for (int s = 0; s < Symmetry.COUNT; s++) {
+         for (int inverse = 0; inverse < Symmetry.COUNT; inverse++) {
+            if (Symmetry.moveLocation(inverse,
+                  Symmetry.LOCATIONS[s][1]) == 1 &&
+                Symmetry.moveLocation(inverse,
+                  Symmetry.LOCATIONS[s][2]) == 2) {
+               //a symmetry is decided by where it moves two such locations
+               Symmetry.INVERSES[s] = inverse;
+            }
+         }
+      }
+   }
+
+   private Symmetry() {
+   }
+
+   /**
+    * @param s    a symmetry (between 0 and COUNT - 1)
+    * @param loc  a location in a board, or a board in the macroboard
+    * @return  the location that the symmetry moves it to
+    */
+   public static int moveLocation(int s, int loc) {
+      return Symmetry.LOCATIONS[s][loc];
+   }
+
+   /**
+    * @param s    a symmetry
+    * @param mask a mask of locations (or of boards)
+    * @return  the mask with every location moved by the symmetry
+    */
+   public static int moveMask(int s, int mask) {
+      return Symmetry.MOVED[s][mask];
+   }
+
+   /**
+    * @param s       a symmetry
+    * @param index   the index of a move (see Bitboard.toIndex(Move))
+    * @return  the index of the move that the symmetry moves it to
+    */
+   public static int moveIndex(int s, int index) {
+      return Symmetry.INDICES[s][index];
+   }
+
+   /**
+    * @param s    a symmetry
+    * @return  the symmetry that moves everything back where s found it
+    */
+   public static int inverse(int s) {
+      return Symmetry.INVERSES[s];
+   }
+
+   /**
+    * @param board   a state
+    * @return  the symmetry whose hash is the canonical key of the state;
+    *             the lowest one if more than one has that hash
+    */
+   public static int getCanonical(Bitboard board) {
+      int best = 0;
+      long bestHash = board.getHash(0);
+      for (int s = 1; s < Symmetry.COUNT; s++) {
+         long hash = board.getHash(s);
+         if (hash < bestHash) {
+            best = s;
+            bestHash = hash;
+         }
+      }
+      return best;
+   }
+
+   /**
+    * @param board   a state
+    * @return  the canonical key of the state, which is the same for every
+    *             symmetry of it
+    */
+   public static long getKey(Bitboard board) {
+      return board.getHash(Symmetry.getCanonical(board));
+   }
+
+   /**
+    * @param index      the index of a move in the given state, or
+    *                      TranspositionTable.NO_MOVE
+    * @param canonical  the symmetry that getCanonical(Bitboard) gave the state
+    * @return  the index of the move in the canonical state
+    */
+   public static int toCanonical(int index, int canonical) {
+      if (index < 0 || index >= 81) {
+         return index;
+      }
+      return Symmetry.INDICES[canonical][index];
+   }
+
+   /**
+    * @param index      the index of a move in the canonical state, or
+    *                      TranspositionTable.NO_MOVE
+    * @param canonical  the symmetry that getCanonical(Bitboard) gave the state
+    * @return  the index of the move in the given state
+    */
+   public static int fromCanonical(int index, int canonical) {
+      if (index < 0 || index >= 81) {
+         return index;
+      }
+      return Symmetry.INDICES[Symmetry.INVERSES[canonical]][index];
+   }
+}
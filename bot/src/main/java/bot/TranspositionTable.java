@@ -0,0 +1,141 @@
+package bot;
+
+/**
+ * A TranspositionTable remembers the results of searches, so that a state
+ *    that can be reached in different orders of moves only has to be searched
+ *    once. Bot looks states up by their canonical key (see Symmetry), so a
+ *    rotation or a reflection of a state that was searched is found as well,
+ *    and the best move is kept for the canonical state.
+ *
+ * The table is a fixed number of entries kept in two arrays of longs, so it
+ *    never creates any objects after it has been made. Every entry is the
+ *    Zobrist hash of a state and a long that packs the result of searching it:
+ *       bits 0-31   the value of the state
+ *       bits 32-39  the depth of the search
+ *       bits 40-41  the type of bound that the value is
+ *       bits 42-48  the index of the best move (see Bitboard.toIndex(Move))
+ *       bits 49-56  the generation of the search that stored the entry
+ *
+ * The table can be shared by searches in more than one thread without locks.
+ *    Instead of the hash, the keys array keeps the hash XOR the entry, so an
+ *    entry that was only half written by another thread does not match the
+ *    hash of any state and is ignored.
+ *
+ * Entries are grouped into buckets of two. The first entry of a bucket keeps
+ *    the deepest result of the current search, and the second entry always
+ *    keeps the latest result that did not fit in the first.
+ */
+public class TranspositionTable {
+
+   //the value is the exact value of the state
+   public static final int EXACT = 1;
+   //the value is at least as low as the real value (the search failed high)
+   public static final int LOWER = 2;
+   //the value is at least as high as the real value (the search failed low)
+   public static final int UPPER = 3;
+   //index of a move when there is no best move
+   public static final int NO_MOVE = 0x7F;
+
+   //size of an entry in bytes
+   private static final int ENTRY_SIZE = 16;
+
+   //package-private so that a test can tear an entry the way a race would
+   final long[] keys;
+   final long[] data;
+   private final int mask;
+   private int generation;
+
+   /**
+    * @Precondition: megabytes is greater than 0
+    * @param megabytes  the most memory the table may use
+    */
+   public TranspositionTable(int megabytes) {
+      if (megabytes < 1) {
+         throw new IllegalArgumentException();
+      }
+      long entries = ((long)megabytes << 20) / TranspositionTable.ENTRY_SIZE;
+      //the number of entries has to be a power of two
+      int size = (int)Long.highestOneBit(Math.min(entries, 1 << 30));
+      this.keys = new long[size];
+      this.data = new long[size];
+      this.mask = size - 2;//index of the first entry of a bucket
+   }
+
+   /**
+    * Starts a new search. Entries of older searches are replaced first.
+    */
+   public void newSearch() {
+      this.generation = (this.generation + 1) & 0xFF;
+   }
+
+   /**
+    * Forgets every entry.
+    */
+   public void clear() {
+      for (int i = 0; i < this.keys.length; i++) {
+         this.keys[i] = 0;
+         this.data[i] = 0;
+      }
+   }
+
+   /**
+    * @param hash the Zobrist hash of a state
+    * @return  the entry of the given state; otherwise, 0
+    */
+   public long probe(long hash) {
+      int index = (int)hash & this.mask;
+      for (int i = index; i <= index + 1; i++) {
+         long entry = this.data[i];
+         if (entry != 0 && (this.keys[i] ^ entry) == hash) {
+            return entry;
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * @param hash    the Zobrist hash of a state
+    * @param depth   the depth of the search of the state (0 to 255)
+    * @param bound   EXACT, LOWER, or UPPER
+    * @param value   the value of the state
+    * @param move    the index of the best move in the state, or NO_MOVE
+    */
+   public void store(long hash, int depth, int bound, int value, int move) {
+      long entry = (value & 0xFFFFFFFFL) |
+                   ((long)depth << 32) |
+                   ((long)bound << 40) |
+                   ((long)move << 42) |
+                   ((long)this.generation << 49);
+      int index = (int)hash & this.mask;
+      long first = this.data[index];
+      if ((this.keys[index] ^ first) == hash || first == 0 ||
+          TranspositionTable.getGeneration(first) != this.generation ||
+          depth >= TranspositionTable.getDepth(first)) {
+         this.keys[index] = hash ^ entry;
+         this.data[index] = entry;
+      } else {
+         this.keys[index + 1] = hash ^ entry;
+         this.data[index + 1] = entry;
+      }
+   }
+
+   public static int getValue(long entry) {
+      return (int)entry;
+   }
+
+   public static int getDepth(long entry) {
+      return (int)(entry >>> 32) & 0xFF;
+   }
+
+   public static int getBound(long entry) {
+      return (int)(entry >>> 40) & 0x3;
+   }
+
+   public static int getMove(long entry) {
+      return (int)(entry >>> 42) & 0x7F;
+   }
+
+   private static int getGeneration(long entry) {
+      return (int)(entry >>> 49) & 0xFF;
+   }
+}
@@ -0,0 +1,113 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * BitboardTest checks that what Bitboard keeps up to date while moves are
+ *    made and unmade (the hash of every symmetry and the value) is the same
+ *    as what it calculates from scratch when the engine sends the whole
+ *    field.
+ */
+public class BitboardTest {
+
+   private static final int GAMES = 200;
+
+   @Test
+   public void incrementalStateMatchesRebuild() {
+      Random random = new Random(5);
+      int[] moves = new int[81];
+      int[] played = new int[81];
+      int[] boards = new int[81];
+      for (int game = 0; game < BitboardTest.GAMES; game++) {
+         Bitboard board = new Bitboard();
+         int id = 1;
+         int ply = 0;
+         while (board.getWinner() == 0) {
+            int count = board.getAvailableMoves(moves);
+            if (count == 0) {
+               break;
+            }
+            played[ply] = moves[random.nextInt(count)];
+            boards[ply] = board.makeMove(played[ply], id);
+            ply++;
+            id = Board.calculateOppID(id);
+            BitboardTest.assertRebuilt("game " + game + " ply " + ply, board);
+         }
+         //and back to the start
+         while (ply > 0) {
+            ply--;
+            id = Board.calculateOppID(id);
+            board.unmakeMove(played[ply], id, boards[ply]);
+            BitboardTest.assertRebuilt("game " + game + " undo " + ply,
+                  board);
+         }
+         assertEquals(new Bitboard().getHash(), board.getHash());
+      }
+   }
+
+   @Test
+   public void symmetricHashesMatchTransformedStates() {
+      Random random = new Random(6);
+      int[] moves = new int[81];
+      Bitboard moved = new Bitboard();
+      for (int game = 0; game < BitboardTest.GAMES; game++) {
+         Bitboard board = new Bitboard();
+         int id = 1;
+         while (board.getWinner() == 0) {
+            int count = board.getAvailableMoves(moves);
+            if (count == 0) {
+               break;
+            }
+            board.makeMove(moves[random.nextInt(count)], id);
+            id = Board.calculateOppID(id);
+            for (int s = 0; s < Symmetry.COUNT; s++) {
+               moved.transform(board, s);
+               assertEquals("game " + game + " symmetry " + s,
+                     board.getHash(s), moved.getHash());
+               assertEquals(Symmetry.getKey(board), Symmetry.getKey(moved));
+            }
+         }
+      }
+   }
+
+   /**
+    * @param message what to report if the state does not match
+    * @param board   a state reached by making and unmaking moves
+    */
+   static void assertRebuilt(String message, Bitboard board) {
+      Bitboard rebuilt = new Bitboard();
+      rebuilt.updateField(BitboardTest.toField(board));
+      int[] ids = new int[Lines.SIZE];
+      for (int b = 0; b < Lines.SIZE; b++) {
+         ids[b] = (board.getActive() & (1 << b)) != 0 ? -1 : 0;
+      }
+      rebuilt.updateBoards(ids);
+      assertEquals(message, rebuilt.getValue(1), board.getValue(1));
+      for (int s = 0; s < Symmetry.COUNT; s++) {
+         assertEquals(message + " symmetry " + s, rebuilt.getHash(s),
+               board.getHash(s));
+      }
+   }
+
+   /**
+    * @param board   a state
+    * @return  the id of every location, in the order the engine sends them
+    */
+   static int[] toField(Bitboard board) {
+      int numLocs = Board.ROWS * Board.COLS;
+      int[] field = new int[numLocs * numLocs];
+      for (int i = 0; i < field.length; i++) {
+         int microRow = i / numLocs;
+         int microCol = i % numLocs;
+         int b = (microRow / Board.ROWS) * Board.COLS + microCol / Board.COLS;
+         int cell = (microRow % Board.ROWS) * Board.COLS +
+                    microCol % Board.COLS;
+         field[i] = board.getID(b, cell);
+      }
+      return field;
+   }
+}
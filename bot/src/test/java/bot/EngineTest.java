@@ -0,0 +1,136 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * EngineTest checks that Engine.setField only makes the move of the
+ *    opposing player when that is all that changed (Bitboard.applyField),
+ *    that it replaces the whole state when anything else changed, and that
+ *    either way the state is the one the engine sent.
+ */
+public class EngineTest {
+
+   private static final int GAMES = 5;
+   //so that every move takes the least time the Clock allows
+   private static final int TIME_LEFT = 60;
+
+   @Test
+   public void onlyTheOpposingMoveIsApplied() {
+      Bitboard board = new Bitboard();
+      board.makeMove(4 * 9 + 4, 1);//only the middle board is active
+      long hash = board.getHash();
+      Bitboard after = new Bitboard();
+      after.copy(board);
+      after.makeMove(4 * 9 + 0, 2);
+      assertTrue(board.applyField(BitboardTest.toField(board), 2));
+      assertEquals(hash, board.getHash());
+      //a move of the other player, two moves, a move in a board that is
+      //not active, and a location that was taken and is empty again
+      int[][] others = new int[4][];
+      for (int i = 0; i < others.length; i++) {
+         others[i] = BitboardTest.toField(board);
+      }
+      others[0][EngineTest.toPlace(4 * 9 + 0)] = 1;
+      others[1][EngineTest.toPlace(4 * 9 + 0)] = 2;
+      others[1][EngineTest.toPlace(0 * 9 + 4)] = 1;
+      others[2][EngineTest.toPlace(0 * 9 + 0)] = 2;
+      others[3][EngineTest.toPlace(4 * 9 + 4)] = 0;
+      for (int[] other : others) {
+         assertFalse(board.applyField(other, 2));
+         assertEquals(hash, board.getHash());
+      }
+      assertTrue(board.applyField(BitboardTest.toField(after), 2));
+      BitboardTest.assertRebuilt("applied", board);
+      assertEquals(after.getHash(), board.getHash());
+   }
+
+   @Test
+   public void statesFollowTheEngine() {
+      Random random = new Random(7);
+      int[] moves = new int[81];
+      Options options = new Options();
+      options.set("hash", "1");
+      for (int game = 0; game < EngineTest.GAMES; game++) {
+         Engine engine = Engine.create(1, new Clock(), options);
+         Bitboard referee = new Bitboard();
+         Bitboard expected = new Bitboard();
+         int ply = 0;
+         while (referee.getWinner() == 0 &&
+                referee.getAvailableMoves(moves) > 0) {
+            String message = "game " + game + " ply " + ply;
+            int[] field = BitboardTest.toField(referee);
+            if (ply > 0) {
+               //our state is the engine's but for the opposing player's move
+               expected.copy(engine.board);
+               assertTrue(message, expected.applyField(field, 2));
+            }
+            engine.setField(field);
+            engine.setMacroboard(EngineTest.toMacroboard(referee));
+            assertEquals(message, referee.getHash(), engine.board.getHash());
+            BitboardTest.assertRebuilt(message, engine.board);
+            Move move = EngineTest.toMove(engine.pickBestMove(
+                  EngineTest.TIME_LEFT), 1);
+            referee.makeMove(Bitboard.toIndex(move), 1);
+            ply++;
+            if (referee.getWinner() != 0 ||
+                referee.getAvailableMoves(moves) == 0) {
+               break;
+            }
+            referee.makeMove(moves[random.nextInt(
+                  referee.getAvailableMoves(moves))], 2);
+            ply++;
+         }
+         //a field of another game replaces the whole state
+         Bitboard other = SearchTest.randomEndgame(random, 40);
+         engine.setField(BitboardTest.toField(other));
+         engine.setMacroboard(EngineTest.toMacroboard(other));
+         assertEquals(other.getHash(), engine.board.getHash());
+         BitboardTest.assertRebuilt("game " + game + " replaced",
+               engine.board);
+      }
+   }
+
+   /**
+    * @param index   the index of a location (see Bitboard.toIndex(Move))
+    * @return  its place in the field, in the order the engine sends them
+    */
+   private static int toPlace(int index) {
+      int b = index / 9;
+      int cell = index % 9;
+      int row = (b / Board.COLS) * Board.ROWS + cell / Board.COLS;
+      int col = (b % Board.COLS) * Board.COLS + cell % Board.COLS;
+      return row * 9 + col;
+   }
+
+   /**
+    * @param board   a state
+    * @return  the id of every board as the engine sends them: -1 for the
+    *             active boards
+    */
+   private static int[] toMacroboard(Bitboard board) {
+      int[] ids = new int[Lines.SIZE];
+      for (int b = 0; b < ids.length; b++) {
+         ids[b] = (board.getActive() & 1 << b) != 0 ? -1 : board.getID(b);
+      }
+      return ids;
+   }
+
+   /**
+    * @param move the location of a move as the engine expects it: "x y"
+    * @param id   the id of the player that made the move
+    * @return  the move
+    */
+   private static Move toMove(String move, int id) {
+      int split = move.indexOf(' ');
+      int col = Integer.parseInt(move.substring(0, split));
+      int row = Integer.parseInt(move.substring(split + 1));
+      return new Move(row % Board.ROWS, col % Board.COLS, row / Board.ROWS,
+            col / Board.COLS, id);
+   }
+}
@@ -0,0 +1,223 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * GameServerTest plays games against a GameServer over TCP, the way the
+ *    engine would: every client sends all of its lines, shuts down its
+ *    output, and has to get every move before the server closes the
+ *    connection, whether the lines arrived at once or a byte at a time.
+ */
+public class GameServerTest {
+
+   //two moves, with little time for each
+   private static final String GAME =
+         "settings timebank 200\n" +
+         "settings time_per_move 20\n" +
+         "settings player_names player1,player2\n" +
+         "settings your_bot player1\n" +
+         "settings your_botid 1\n" +
+         "update game round 1\n" +
+         "update game move 1\n" +
+         "update game field " + GameServerTest.field(-1, -1) + "\n" +
+         "update game macroboard -1,-1,-1,-1,-1,-1,-1,-1,-1\n" +
+         "action move 200\n" +
+         "update game round 2\n" +
+         "update game move 3\n" +
+         "update game field " + GameServerTest.field(40, 52) + "\n" +
+         "update game macroboard 0,0,0,0,0,0,0,0,-1\n" +
+         "action move 200\n";
+   //how long a client waits for the server before the test fails (ms)
+   private static final int TIMEOUT = 20000;
+
+   private InetSocketAddress address;
+   private Thread server;
+
+   @Before
+   public void setUp() throws IOException, InterruptedException {
+      ServerSocket free = new ServerSocket(0);
+      int port = free.getLocalPort();
+      free.close();
+      this.address = new InetSocketAddress("127.0.0.1", port);
+      Options options = new Options();
+      options.set("hash", "1");
+      final GameServer gameServer = new GameServer(this.address, 2, 8,
+            options);
+      this.server = new Thread(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               gameServer.run();
+            } catch (IOException e) {
+               throw new IllegalStateException(e);
+            }
+         }
+      });
+      this.server.start();
+   }
+
+   @After
+   public void tearDown() throws InterruptedException {
+      this.server.interrupt();
+      this.server.join(GameServerTest.TIMEOUT);
+   }
+
+   @Test
+   public void halfClosedSessionsGetEveryMove() throws Exception {
+      ExecutorService clients = Executors.newFixedThreadPool(4);
+      try {
+         List<Future<List<String>>> games =
+               new ArrayList<Future<List<String>>>();
+         for (int i = 0; i < 4; i++) {
+            final boolean trickle = i % 2 == 1;
+            games.add(clients.submit(new Callable<List<String>>() {
+               @Override
+               public List<String> call() throws IOException {
+                  return GameServerTest.this.play(GameServerTest.GAME,
+                        trickle);
+               }
+            }));
+         }
+         for (Future<List<String>> game : games) {
+            List<String> lines = game.get();
+            assertEquals(lines.toString(), 2, lines.size());
+            for (String line : lines) {
+               assertTrue(line, line.matches("place_move [0-8] [0-8]"));
+            }
+         }
+      } finally {
+         clients.shutdownNow();
+      }
+   }
+
+   @Test
+   public void brokenSessionsAreClosed() throws IOException {
+      //an update before the settings can not be handled
+      Socket socket = this.connect();
+      try {
+         OutputStream out = socket.getOutputStream();
+         out.write(("update game field " + GameServerTest.field(-1, -1) +
+               "\naction move 200\n").getBytes(StandardCharsets.US_ASCII));
+         out.flush();
+         //without shutting down our output, the server has to close it
+         assertEquals(-1, socket.getInputStream().read());
+      } finally {
+         socket.close();
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void helperThreadsAreRejected() throws IOException {
+      Options options = new Options();
+      options.set("threads", "2");
+      new GameServer(this.address, 1, 1, options);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void ponderingIsRejected() throws IOException {
+      Options options = new Options();
+      options.set("ponder", "true");
+      new GameServer(this.address, 1, 1, options);
+   }
+
+   /**
+    * Sends every line of a game, shuts down the output, and reads until the
+    *    server closes the connection.
+    *
+    * @param game    the lines to send
+    * @param trickle true if every byte should be sent on its own
+    * @return  the lines the server sent
+    */
+   private List<String> play(String game, boolean trickle)
+         throws IOException {
+      Socket socket = this.connect();
+      try {
+         socket.setTcpNoDelay(true);
+         OutputStream out = socket.getOutputStream();
+         byte[] bytes = game.getBytes(StandardCharsets.US_ASCII);
+         if (trickle) {
+            for (byte b : bytes) {
+               out.write(b);
+               out.flush();
+            }
+         } else {
+            out.write(bytes);
+            out.flush();
+         }
+         socket.shutdownOutput();
+         BufferedReader in = new BufferedReader(new InputStreamReader(
+               socket.getInputStream(), StandardCharsets.US_ASCII));
+         List<String> lines = new ArrayList<String>();
+         for (String line = in.readLine(); line != null;
+               line = in.readLine()) {
+            lines.add(line);
+         }
+         return lines;
+      } finally {
+         socket.close();
+      }
+   }
+
+   /**
+    * @return  a connection to the server, once it is listening
+    */
+   private Socket connect() throws IOException {
+      long deadline = System.currentTimeMillis() + GameServerTest.TIMEOUT;
+      while (true) {
+         Socket socket = new Socket();
+         try {
+            socket.connect(this.address, GameServerTest.TIMEOUT);
+            socket.setSoTimeout(GameServerTest.TIMEOUT);
+            return socket;
+         } catch (ConnectException e) {
+            socket.close();
+            if (System.currentTimeMillis() > deadline) {
+               throw e;
+            }
+            try {
+               Thread.sleep(10);
+            } catch (InterruptedException interrupted) {
+               Thread.currentThread().interrupt();
+               throw e;
+            }
+         }
+      }
+   }
+
+   /**
+    * @param one  the place in the field of a location of player 1; -1 if none
+    * @param two  the place in the field of a location of player 2; -1 if none
+    * @return  the field as the engine sends it
+    */
+   private static String field(int one, int two) {
+      StringBuilder field = new StringBuilder();
+      for (int i = 0; i < 81; i++) {
+         if (i > 0) {
+            field.append(',');
+         }
+         field.append(i == one ? 1 : i == two ? 2 : 0);
+      }
+      return field.toString();
+   }
+}
@@ -0,0 +1,63 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * MonteCarloBotTest checks that MonteCarloBot finds the one move that
+ *    matters when the game hangs on a single location: the move that wins
+ *    the game, or the move that keeps the opposing player from winning it.
+ *
+ * In the position, player 1 has won the top left and top middle boards, and
+ *    has two of the top row of the top right board, the only board that is
+ *    active. Every other board is decided, so a move anywhere else in the top
+ *    right board lets the next player move in any board.
+ */
+public class MonteCarloBotTest {
+
+   //the location of each board, row by row
+   private static final String[] BOARDS = {
+      "111220000", "122010001", "110000000",
+      "222110000", "121122211", "222110000",
+      "121122211", "222110000", "121122211"
+   };
+   //the index of the top right corner of the top right board
+   private static final int CORNER = 2 * 9 + 2;
+   private static final int PLAYOUTS = 20000;
+
+   @Test
+   public void playsTheWinningMove() {
+      assertEquals(MonteCarloBotTest.CORNER,
+            Bitboard.toIndex(MonteCarloBotTest.search(1)));
+   }
+
+   @Test
+   public void blocksTheWinningMove() {
+      //anywhere else, player 1 could move in the top right board and win
+      assertEquals(MonteCarloBotTest.CORNER,
+            Bitboard.toIndex(MonteCarloBotTest.search(2)));
+   }
+
+   /**
+    * @param id   the id of the player that is about to move
+    * @return  the move MonteCarloBot picks for the player in the position
+    */
+   private static Move search(int id) {
+      MonteCarloBot bot = new MonteCarloBot(id, new Clock(), new Options());
+      int[] field = new int[81];
+      for (int b = 0; b < Lines.SIZE; b++) {
+         for (int cell = 0; cell < Lines.SIZE; cell++) {
+            int row = (b / Board.COLS) * Board.ROWS + cell / Board.COLS;
+            int col = (b % Board.COLS) * Board.COLS + cell % Board.COLS;
+            field[row * 9 + col] =
+                  MonteCarloBotTest.BOARDS[b].charAt(cell) - '0';
+         }
+      }
+      bot.setField(field);
+      bot.setMacroboard(new int[] {1, 1, -1, 2, 0, 2, 0, 2, 0});
+      assertEquals(0x3, bot.board.getWon(1));
+      assertEquals(0xA8, bot.board.getWon(2));
+      return bot.pickBestMove(id, MonteCarloBotTest.PLAYOUTS);
+   }
+}
@@ -0,0 +1,127 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * OpeningBookTest builds a small book with BookBuilder and checks that
+ *    OpeningBook finds every state that was searched, including the ones
+ *    that were skipped as rotations or reflections of another state, and
+ *    that a move from the book that is not available is never played.
+ */
+public class OpeningBookTest {
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   @Test
+   public void bookHasEveryStateOfItsFirstMoves() throws IOException {
+      String path = this.folder.newFile("book.bin").getPath();
+      BookBuilder.main(new String[] {path, "2", "3"});
+      OpeningBook book = new OpeningBook(path);
+      Bitboard board = new Bitboard();
+      OpeningBookTest.assertPlayable(book, board, 1);
+      int[] moves = new int[81];
+      int count = board.getAvailableMoves(moves);
+      Bitboard moved = new Bitboard();
+      Set<Long> keys = new HashSet<Long>();
+      keys.add(Symmetry.getKey(board));
+      for (int i = 0; i < count; i++) {
+         int boards = board.makeMove(moves[i], 1);
+         keys.add(Symmetry.getKey(board));
+         Move move = OpeningBookTest.assertPlayable(book, board, 2);
+         //every symmetry of the state has the same move, moved the same way
+         for (int s = 0; s < Symmetry.COUNT; s++) {
+            moved.transform(board, s);
+            Move other = OpeningBookTest.assertPlayable(book, moved, 2);
+            assertEquals(move.value, other.value);
+         }
+         board.unmakeMove(moves[i], 1, boards);
+      }
+      //the 81 first moves are 15 states once symmetries are left out
+      assertEquals(1 + 15, keys.size());
+      assertEquals(keys.size(), book.size());
+   }
+
+   @Test
+   public void movesThatAreNotAvailableAreIgnored() throws IOException {
+      //after the middle of the middle board, only the middle board is active
+      Bitboard board = new Bitboard();
+      board.makeMove(4 * 9 + 4, 1);
+      int canonical = Symmetry.getCanonical(board);
+      long key = board.getHash(canonical);
+      //a move in a board that is not active
+      OpeningBook book = this.writeBook(key,
+            Symmetry.toCanonical(0 * 9 + 0, canonical));
+      assertNull(book.getMove(board, 2));
+      //a location that is taken
+      book = this.writeBook(key, Symmetry.toCanonical(4 * 9 + 4, canonical));
+      assertNull(book.getMove(board, 2));
+      //an available move is played
+      book = this.writeBook(key, Symmetry.toCanonical(4 * 9 + 0, canonical));
+      assertEquals(4 * 9 + 0, Bitboard.toIndex(book.getMove(board, 2)));
+   }
+
+   @Test(expected = IOException.class)
+   public void truncatedBooksAreRejected() throws IOException {
+      File file = this.folder.newFile("truncated.bin");
+      DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+      try {
+         out.writeInt(OpeningBook.MAGIC);
+         out.writeInt(2);
+         out.writeLong(0);
+      } finally {
+         out.close();
+      }
+      new OpeningBook(file.getPath());
+   }
+
+   /**
+    * @param key     the key of the one state in the book
+    * @param index   the index of its best move in the canonical state
+    * @return  a book of that one state
+    */
+   private OpeningBook writeBook(long key, int index) throws IOException {
+      File file = this.folder.newFile();
+      DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+      try {
+         out.writeInt(OpeningBook.MAGIC);
+         out.writeInt(1);
+         out.writeLong(key);
+         out.writeInt(index);
+         out.writeInt(0);
+      } finally {
+         out.close();
+      }
+      return new OpeningBook(file.getPath());
+   }
+
+   /**
+    * @param book
+    * @param board   a state that is in the book
+    * @param id      the id of the player that is about to move
+    * @return  the move of the book, which is available in the state
+    */
+   private static Move assertPlayable(OpeningBook book, Bitboard board,
+         int id) {
+      Move move = book.getMove(board, id);
+      assertNotNull(move);
+      int index = Bitboard.toIndex(move);
+      assertTrue((board.getActive() & 1 << index / 9) != 0);
+      assertTrue((board.getEmpty(index / 9) & 1 << index % 9) != 0);
+      return move;
+   }
+}
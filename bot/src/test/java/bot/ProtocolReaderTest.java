@@ -0,0 +1,162 @@
+package bot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * ProtocolReaderTest checks that ProtocolReader gives the same lines and
+ *    tokens however the bytes arrive: a byte at a time, with CRLF line
+ *    endings, in lines longer than its buffer, or given with append.
+ */
+public class ProtocolReaderTest {
+
+   private static final String LINES =
+         "settings your_botid 1\r\n" +
+         "update  game   macroboard -1,0,2,0,0,0,0,0,-1\n" +
+         "\n" +
+         "action move 10000";//the last line has no newline
+
+   @Test
+   public void linesSplitAcrossReads() throws IOException {
+      ProtocolReader reader = new ProtocolReader(
+            ProtocolReaderTest.trickle(ProtocolReaderTest.LINES));
+      assertTrue(reader.nextLine());
+      assertEquals(3, reader.getTokenCount());
+      assertTrue(reader.is(0, "settings"));
+      assertTrue(reader.is(1, "your_botid"));
+      assertEquals(1, reader.getInt(2));//no \r left on the last token
+      assertTrue(reader.nextLine());
+      assertEquals(4, reader.getTokenCount());
+      assertTrue(reader.is(2, "macroboard"));
+      int[] ids = new int[9];
+      assertEquals(9, reader.getInts(3, ids));
+      assertArrayEquals(new int[] {-1, 0, 2, 0, 0, 0, 0, 0, -1}, ids);
+      assertTrue(reader.nextLine());
+      assertEquals(0, reader.getTokenCount());
+      assertTrue(reader.nextLine());
+      assertTrue(reader.is(0, "action"));
+      assertFalse(reader.is(0, "act"));
+      assertEquals(10000, reader.getInt(2));
+      assertFalse(reader.nextLine());
+   }
+
+   @Test
+   public void linesLongerThanTheBuffer() throws IOException {
+      int[] field = new int[5000];
+      StringBuilder line = new StringBuilder("update game field ");
+      for (int i = 0; i < field.length; i++) {
+         field[i] = i % 3;
+         line.append(i > 0 ? "," : "").append(field[i]);
+      }
+      String lines = line + "\n" + line + "\naction move 5\n";
+      ProtocolReader reader = new ProtocolReader(
+            ProtocolReaderTest.trickle(lines));
+      int[] ids = new int[field.length];
+      for (int i = 0; i < 2; i++) {
+         assertTrue(reader.nextLine());
+         assertEquals(field.length, reader.getInts(3, ids));
+         assertArrayEquals(field, ids);
+      }
+      assertTrue(reader.nextLine());
+      assertEquals(5, reader.getInt(2));
+   }
+
+   @Test
+   public void appendedLinesWaitUntilTheyAreWhole() throws IOException {
+      ProtocolReader reader = new ProtocolReader();
+      byte[] bytes = ProtocolReaderTest.LINES.getBytes(
+            StandardCharsets.US_ASCII);
+      int split = ProtocolReaderTest.LINES.indexOf("macroboard");
+      reader.append(bytes, 0, split);
+      assertTrue(reader.nextLine());
+      assertTrue(reader.is(0, "settings"));
+      assertFalse(reader.nextLine());//the second line is not all here
+      reader.append(bytes, split, bytes.length - split);
+      assertTrue(reader.nextLine());
+      assertTrue(reader.is(2, "macroboard"));
+      assertTrue(reader.nextLine());
+      //without a stream, a line without a newline might not be over yet
+      assertFalse(reader.nextLine());
+      reader.append(new byte[] {'\n'}, 0, 1);
+      assertTrue(reader.nextLine());
+      assertEquals(10000, reader.getInt(2));
+   }
+
+   @Test
+   public void appendedLinesLongerThanTheBuffer() throws IOException {
+      ProtocolReader reader = new ProtocolReader();
+      byte[] line = new byte[10000];
+      Arrays.fill(line, (byte) 'x');
+      line[line.length - 1] = '\n';
+      reader.append(line, 0, line.length);
+      reader.append(line, 0, line.length);
+      for (int i = 0; i < 2; i++) {
+         assertTrue(reader.nextLine());
+         assertEquals(line.length - 1, reader.getString(0).length());
+      }
+      assertFalse(reader.nextLine());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void tooManyNumbers() throws IOException {
+      ProtocolReaderTest.readLine("field 1,2,3").getInts(1, new int[2]);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void missingNumber() throws IOException {
+      ProtocolReaderTest.readLine("field 1,,3").getInts(1, new int[3]);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void notANumber() throws IOException {
+      ProtocolReaderTest.readLine("move 1x").getInt(1);
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void streamsCanNotBeAppendedTo() {
+      new ProtocolReader(new ByteArrayInputStream(new byte[0]))
+            .append(new byte[1], 0, 1);
+   }
+
+   /**
+    * @param line
+    * @return  a ProtocolReader on the given line
+    */
+   private static ProtocolReader readLine(String line) throws IOException {
+      ProtocolReader reader = new ProtocolReader(new ByteArrayInputStream(
+            line.getBytes(StandardCharsets.US_ASCII)));
+      assertTrue(reader.nextLine());
+      return reader;
+   }
+
+   /**
+    * @param text
+    * @return  a stream of the text that gives at most one byte per read
+    */
+   private static InputStream trickle(String text) {
+      final InputStream in = new ByteArrayInputStream(
+            text.getBytes(StandardCharsets.US_ASCII));
+      return new InputStream() {
+         @Override
+         public int read() throws IOException {
+            return in.read();
+         }
+
+         @Override
+         public int read(byte[] bytes, int offset, int length)
+               throws IOException {
+            return in.read(bytes, offset, Math.min(length, 1));
+         }
+      };
+   }
+}
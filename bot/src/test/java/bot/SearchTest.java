@@ -0,0 +1,83 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * SearchTest checks Bot against EndgameSolver on endgames that both can
+ *    search to the end. With late move reductions, extensions and pruning
+ *    turned off, Bot has to be exact: its best move is a win, a draw or a
+ *    loss exactly when the solver's is.
+ */
+public class SearchTest {
+
+   //the number of endgames, and how many empty locations each one has
+   private static final int ENDGAMES = 100;
+   private static final int EMPTY = 16;
+   //deeper than any of the endgames can go
+   private static final int DEPTH = 40;
+
+   @Test
+   public void exactSearchMatchesSolver() {
+      Options options = new Options();
+      options.set("lmr", "0");
+      options.set("extensions", "false");
+      options.set("prune_depth", "0");
+      Random random = new Random(1);
+      for (int i = 0; i < SearchTest.ENDGAMES; i++) {
+         Bitboard board = SearchTest.randomEndgame(random, SearchTest.EMPTY);
+         int id = SearchTest.getPlayerToMove(board);
+         Bitboard solved = new Bitboard();
+         solved.copy(board);
+         Move solution = new EndgameSolver(solved).solve(id, Long.MAX_VALUE);
+         Bot bot = new Bot(id, new Clock(), options);
+         bot.board.copy(board);
+         Move best = bot.pickBestMove(id, SearchTest.DEPTH);
+         assertEquals("endgame " + i, solution.value,
+               Integer.signum(best.value));
+      }
+   }
+
+   /**
+    * @param board   a state
+    * @return  the id of the player that is about to move; player 1 moves
+    *             first, so it is player 2 when player 1 has made more moves
+    */
+   static int getPlayerToMove(Bitboard board) {
+      int moves = 0;
+      for (int b = 0; b < Lines.SIZE; b++) {
+         moves += Integer.bitCount(board.getCells(b, 1)) -
+                  Integer.bitCount(board.getCells(b, 2));
+      }
+      return moves > 0 ? 2 : 1;
+   }
+
+   /**
+    * @param random
+    * @param empty   the number of empty locations to leave
+    * @return  a state after random moves that nobody has won yet, with at
+    *             most the given number of empty locations and at least one
+    *             available move
+    */
+   static Bitboard randomEndgame(Random random, int empty) {
+      int[] moves = new int[81];
+      while (true) {
+         Bitboard board = new Bitboard();
+         int id = 1;
+         while (board.getWinner() == 0 && board.getEmptyCount() > empty) {
+            int count = board.getAvailableMoves(moves);
+            if (count == 0) {
+               break;
+            }
+            board.makeMove(moves[random.nextInt(count)], id);
+            id = Board.calculateOppID(id);
+         }
+         if (board.getWinner() == 0 && board.getAvailableMoves(moves) > 0) {
+            return board;
+         }
+      }
+   }
+}
@@ -0,0 +1,99 @@
+package bot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * TranspositionTableTest checks that entries come back the way they were
+ *    stored, which entry of a bucket a new result replaces, and that an entry
+ *    torn by a race between two threads never matches a state.
+ */
+public class TranspositionTableTest {
+
+   //hashes that differ only above the bits of the index share a bucket
+   private static final long A = 0x1234_5678_0000_0010L;
+   private static final long B = 0x0BAD_CAFE_0000_0010L;
+   private static final long C = 0x7777_0000_0000_0010L;
+
+   private TranspositionTable table;
+
+   @Before
+   public void setUp() {
+      this.table = new TranspositionTable(1);
+      this.table.newSearch();
+   }
+
+   @Test
+   public void probeReturnsWhatWasStored() {
+      this.table.store(TranspositionTableTest.A, 7,
+            TranspositionTable.LOWER, -1234, 80);
+      long entry = this.table.probe(TranspositionTableTest.A);
+      assertEquals(-1234, TranspositionTable.getValue(entry));
+      assertEquals(7, TranspositionTable.getDepth(entry));
+      assertEquals(TranspositionTable.LOWER,
+            TranspositionTable.getBound(entry));
+      assertEquals(80, TranspositionTable.getMove(entry));
+      assertEquals(0, this.table.probe(TranspositionTableTest.B));
+      this.table.clear();
+      assertEquals(0, this.table.probe(TranspositionTableTest.A));
+   }
+
+   @Test
+   public void shallowerResultsGoToTheSecondEntry() {
+      this.table.store(TranspositionTableTest.A, 8,
+            TranspositionTable.EXACT, 1, TranspositionTable.NO_MOVE);
+      this.table.store(TranspositionTableTest.B, 3,
+            TranspositionTable.EXACT, 2, TranspositionTable.NO_MOVE);
+      assertEquals(8, this.getDepth(TranspositionTableTest.A));
+      assertEquals(3, this.getDepth(TranspositionTableTest.B));
+      //the second entry always takes the latest result that does not fit
+      this.table.store(TranspositionTableTest.C, 2,
+            TranspositionTable.EXACT, 3, TranspositionTable.NO_MOVE);
+      assertEquals(8, this.getDepth(TranspositionTableTest.A));
+      assertEquals(0, this.table.probe(TranspositionTableTest.B));
+      assertEquals(2, this.getDepth(TranspositionTableTest.C));
+      //the same state replaces its own entry, even with a shallower result
+      this.table.store(TranspositionTableTest.A, 1,
+            TranspositionTable.UPPER, 4, TranspositionTable.NO_MOVE);
+      assertEquals(1, this.getDepth(TranspositionTableTest.A));
+   }
+
+   @Test
+   public void olderSearchesAreReplacedFirst() {
+      this.table.store(TranspositionTableTest.A, 8,
+            TranspositionTable.EXACT, 1, TranspositionTable.NO_MOVE);
+      this.table.newSearch();
+      this.table.store(TranspositionTableTest.B, 1,
+            TranspositionTable.EXACT, 2, TranspositionTable.NO_MOVE);
+      assertEquals(0, this.table.probe(TranspositionTableTest.A));
+      assertEquals(1, this.getDepth(TranspositionTableTest.B));
+   }
+
+   @Test
+   public void tornEntriesMatchNothing() {
+      this.table.store(TranspositionTableTest.A, 5,
+            TranspositionTable.EXACT, 10, 3);
+      int index = (int) TranspositionTableTest.A &
+                  (this.table.keys.length - 2);
+      long keyOfA = this.table.keys[index];
+      this.table.store(TranspositionTableTest.B, 6,
+            TranspositionTable.LOWER, -20, 4);
+      //the key of A was written, but the entry is still the one of B
+      this.table.keys[index] = keyOfA;
+      assertEquals(0, this.table.probe(TranspositionTableTest.A));
+      assertEquals(0, this.table.probe(TranspositionTableTest.B));
+   }
+
+   /**
+    * @param hash the hash of a state that is in the table
+    * @return  the depth of its entry
+    */
+   private int getDepth(long hash) {
+      long entry = this.table.probe(hash);
+      assertTrue(entry != 0);
+      return TranspositionTable.getDepth(entry);
+   }
+}